@@ -27,21 +27,24 @@ public class ChunkCoords {
         hashCode();
     }
 
+    public long toLong() {
+        return HashUtils.packBlock(posX, posY, posZ);
+    }
+
     @Override
     public int hashCode() {
         if (fHashCode == 0) {
-            int result = HashUtils.SEED;
-            result = HashUtils.hash(result, dimID);
-            result = HashUtils.hash(result, posX);
-            result = HashUtils.hash(result, posY);
-            result = HashUtils.hash(result, posZ);
-            fHashCode = result;
+            fHashCode = HashUtils.hashDimPos(dimID, toLong());
         }
         return fHashCode;
     }
 
     @Override
     public boolean equals(Object aThat) {
+        if (this == aThat)
+            return true;
+        if (!(aThat instanceof ChunkCoords))
+            return false;
         ChunkCoords that = (ChunkCoords) aThat;
         return that.dimID == dimID && that.posX == posX && that.posY == posY && that.posZ == posZ;
     }
@@ -1,6 +1,10 @@
 package com.draco18s.hardlib.util;
 
+import me.creepinson.creepinoutils.api.util.NeighborCapabilityCache;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 
@@ -20,4 +24,25 @@ public class CapabilityUtils {
     public static <T> T getCapability(@Nullable ICapabilityProvider provider, Capability<T> capability, @Nullable EnumFacing facing) {
         return provider != null && provider.hasCapability(capability, facing) ? provider.getCapability(capability, facing) : null;
     }
+
+    /**
+     * Get a capability handler from the neighbour of a tile, through the tile's {@link NeighborCapabilityCache} if it has one.
+     *
+     * @param tile       The tile whose neighbour is asked
+     * @param capability The capability
+     * @param side       The side of the tile the neighbour is on, the neighbour is asked for the opposite face
+     * @param <T>        The handler type
+     * @return The handler, if any.
+     */
+    @Nullable
+    public static <T> T getNeighborCapability(TileEntity tile, Capability<T> capability, EnumFacing side) {
+        if (tile instanceof NeighborCapabilityCache.IProvider) {
+            return ((NeighborCapabilityCache.IProvider) tile).getNeighborCache().getCapability(capability, side);
+        }
+        BlockPos neighbor = tile.getPos().offset(side);
+        World world = tile.getWorld();
+        if (world == null || !world.isBlockLoaded(neighbor))
+            return null;
+        return getCapability(world.getTileEntity(neighbor), capability, side.getOpposite());
+    }
 }
@@ -1,5 +1,6 @@
 package me.creepinson.creepinoutils;
 
+import me.creepinson.creepinoutils.api.util.text.LangReloadListener;
 import me.creepinson.creepinoutils.base.BaseMod;
 import net.minecraft.block.Block;
 import net.minecraft.init.Blocks;
@@ -50,6 +51,9 @@ public class CreepinoUtilsMod extends BaseMod {
     @EventHandler
     public void preInit(FMLPreInitializationEvent event) {
         super.preInit(event, null);
+        if (event.getSide().isClient()) {
+            LangReloadListener.register();
+        }
 
         OreDictionary.registerOre("stoneAny", new ItemStack(Blocks.STONE, 1, 0));
         OreDictionary.registerOre("stoneAny", new ItemStack(Blocks.STONE, 1, 1));
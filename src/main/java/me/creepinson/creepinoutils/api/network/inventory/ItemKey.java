@@ -0,0 +1,74 @@
+package me.creepinson.creepinoutils.api.network.inventory;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Identifies a kind of item by item, meta and nbt, ignoring the count.
+ * The hash is computed once so it can be used as a map key without walking the nbt again.
+ */
+public final class ItemKey {
+    public final Item item;
+    public final int meta;
+    private final NBTTagCompound tag;
+    private final int hash;
+
+    private ItemKey(Item item, int meta, NBTTagCompound tag) {
+        this.item = item;
+        this.meta = meta;
+        this.tag = tag;
+        int h = System.identityHashCode(item);
+        h = 31 * h + meta;
+        h = 31 * h + (tag == null ? 0 : tag.hashCode());
+        this.hash = h;
+    }
+
+    /**
+     * @return the key of the stack or null if it is empty
+     */
+    public static ItemKey of(ItemStack stack) {
+        if (stack.isEmpty())
+            return null;
+        NBTTagCompound tag = stack.getTagCompound();
+        return new ItemKey(stack.getItem(), stack.getMetadata(), tag == null ? null : tag.copy());
+    }
+
+    /**
+     * @return true if the stack is this kind of item, regardless of its count
+     */
+    public boolean matches(ItemStack stack) {
+        if (stack.isEmpty() || stack.getItem() != item || stack.getMetadata() != meta)
+            return false;
+        NBTTagCompound other = stack.getTagCompound();
+        return tag == null ? other == null : tag.equals(other);
+    }
+
+    public ItemStack toStack(int count) {
+        ItemStack stack = new ItemStack(item, count, meta);
+        if (tag != null) {
+            stack.setTagCompound(tag.copy());
+        }
+        return stack;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ItemKey))
+            return false;
+        ItemKey key = (ItemKey) obj;
+        return hash == key.hash && item == key.item && meta == key.meta && (tag == null ? key.tag == null : tag.equals(key.tag));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return item.getRegistryName() + "@" + meta + (tag == null ? "" : tag.toString());
+    }
+}
@@ -0,0 +1,314 @@
+package me.creepinson.creepinoutils.api.network.inventory;
+
+import com.draco18s.hardlib.util.CapabilityUtils;
+import me.creepinson.creepinoutils.api.util.math.Vector3;
+import net.minecraft.block.Block;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.*;
+
+/**
+ * Moves items between the inventories of one network.
+ * Routes from every source to the sinks it can reach are computed once from the connection graph
+ * and reused until {@link #setTopology(Collection)} is called with a different graph, so moving an item never runs a pathfinder.
+ * Transfers requested during a tick are merged per source and item and done in {@link #tick()}
+ * as one extraction and as few insertions as needed.
+ */
+public class ItemTransportEngine {
+    public enum SinkMode {
+        /**
+         * fill the sink with the highest priority first, the closest one on ties
+         */
+        PRIORITY,
+        /**
+         * spread items over all sinks of the highest priority that has room, one after the other
+         */
+        ROUND_ROBIN
+    }
+
+    private final World world;
+    private SinkMode mode = SinkMode.PRIORITY;
+    private final Set<Long> nodes = new HashSet<>();
+    private final Map<Long, Integer> sinks = new HashMap<>();
+    private final Map<Long, long[]> routes = new HashMap<>();
+    private final Map<Long, Integer> roundRobin = new HashMap<>();
+    private final Map<TransferKey, Integer> pending = new LinkedHashMap<>();
+
+    private int itemsLastTick;
+    private long itemsMoved;
+    private long routeHits;
+    private long routeMisses;
+    private int routeRebuilds;
+
+    public ItemTransportEngine(World world) {
+        this.world = world;
+    }
+
+    public void setMode(SinkMode mode) {
+        this.mode = mode;
+    }
+
+    public SinkMode getMode() {
+        return mode;
+    }
+
+    /**
+     * set the positions making up the network, routes are only dropped if they actually changed
+     */
+    public void setTopology(Collection<Vector3> connections) {
+        Set<Long> updated = new HashSet<>();
+        for (Vector3 connection : connections) {
+            updated.add(connection.toBlockPos().toLong());
+        }
+        if (!updated.equals(nodes)) {
+            nodes.clear();
+            nodes.addAll(updated);
+            invalidateRoutes();
+        }
+    }
+
+    public void invalidateRoutes() {
+        routes.clear();
+        roundRobin.clear();
+        routeRebuilds++;
+    }
+
+    /**
+     * @param priority sinks with a higher priority are filled first
+     */
+    public void addSink(BlockPos pos, int priority) {
+        Integer old = sinks.put(pos.toLong(), priority);
+        if (old == null || old != priority) {
+            routes.clear();
+        }
+    }
+
+    public void removeSink(BlockPos pos) {
+        if (sinks.remove(pos.toLong()) != null) {
+            routes.clear();
+        }
+    }
+
+    /**
+     * queue moving up to amount items from source to the sinks, requests for the same source and item are merged
+     *
+     * @param template the item to move or {@link ItemStack#EMPTY} to move whatever the source has
+     */
+    public void request(BlockPos source, ItemStack template, int amount) {
+        if (amount <= 0)
+            return;
+        TransferKey key = new TransferKey(source.toLong(), ItemKey.of(template));
+        Integer queued = pending.get(key);
+        pending.put(key, queued == null ? amount : queued + amount);
+    }
+
+    /**
+     * run every transfer requested since the last tick
+     */
+    public void tick() {
+        itemsLastTick = 0;
+        if (pending.isEmpty())
+            return;
+        for (Map.Entry<TransferKey, Integer> transfer : pending.entrySet()) {
+            itemsLastTick += transfer(transfer.getKey(), transfer.getValue());
+        }
+        pending.clear();
+        itemsMoved += itemsLastTick;
+    }
+
+    private int transfer(TransferKey transfer, int amount) {
+        IItemHandler source = getHandler(transfer.source);
+        if (source == null)
+            return 0;
+        long[] route = getRoute(transfer.source);
+        if (route.length == 0)
+            return 0;
+
+        int moved = 0;
+        for (int slot = 0; slot < source.getSlots() && moved < amount; slot++) {
+            ItemStack available = source.extractItem(slot, amount - moved, true);
+            if (available.isEmpty() || (transfer.item != null && !transfer.item.matches(available)))
+                continue;
+            int accepted = available.getCount() - insert(transfer.source, route, available, true).getCount();
+            if (accepted <= 0)
+                continue;
+            ItemStack extracted = source.extractItem(slot, accepted, false);
+            ItemStack leftover = insert(transfer.source, route, extracted, false);
+            if (!leftover.isEmpty()) {
+                // a sink accepted less than it simulated, hand the rest back instead of losing it
+                handBack(transfer.source, source, slot, leftover);
+            }
+            moved += extracted.getCount() - leftover.getCount();
+        }
+        return moved;
+    }
+
+    /**
+     * put items that could not be delivered back into the slot they came from, then any other slot of the source,
+     * and drop what still does not fit at the source
+     */
+    private void handBack(long sourcePos, IItemHandler source, int slot, ItemStack stack) {
+        ItemStack remaining = source.insertItem(slot, stack, false);
+        remaining = insertIntoHandler(source, remaining, false);
+        if (!remaining.isEmpty()) {
+            Block.spawnAsEntity(world, BlockPos.fromLong(sourcePos), remaining);
+        }
+    }
+
+    private ItemStack insert(long sourcePos, long[] route, ItemStack stack, boolean simulate) {
+        int start = 0;
+        if (mode == SinkMode.ROUND_ROBIN) {
+            Integer next = roundRobin.get(sourcePos);
+            start = next == null ? 0 : next;
+        }
+        int topPriority = sinks.get(route[0]);
+        ItemStack remaining = stack;
+        for (int i = 0; i < route.length && !remaining.isEmpty(); i++) {
+            long sinkPos = route[(start + i) % route.length];
+            if (mode == SinkMode.ROUND_ROBIN && sinks.get(sinkPos) != topPriority)
+                continue;
+            IItemHandler sink = getHandler(sinkPos);
+            if (sink == null)
+                continue;
+            ItemStack before = remaining;
+            remaining = insertIntoHandler(sink, remaining, simulate);
+            if (!simulate && mode == SinkMode.ROUND_ROBIN && remaining.getCount() != before.getCount()) {
+                roundRobin.put(sourcePos, (start + i + 1) % route.length);
+            }
+        }
+        if (mode == SinkMode.ROUND_ROBIN && !remaining.isEmpty()) {
+            // every sink of the top priority is full, fall through to the lower ones in order
+            for (long sinkPos : route) {
+                if (remaining.isEmpty())
+                    break;
+                if (sinks.get(sinkPos) == topPriority)
+                    continue;
+                IItemHandler sink = getHandler(sinkPos);
+                if (sink != null) {
+                    remaining = insertIntoHandler(sink, remaining, simulate);
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private static ItemStack insertIntoHandler(IItemHandler handler, ItemStack stack, boolean simulate) {
+        ItemStack remaining = stack;
+        for (int slot = 0; slot < handler.getSlots() && !remaining.isEmpty(); slot++) {
+            remaining = handler.insertItem(slot, remaining, simulate);
+        }
+        return remaining;
+    }
+
+    /**
+     * the sinks reachable from the source ordered by priority then distance, cached until the topology or the sinks change
+     */
+    private long[] getRoute(long source) {
+        long[] route = routes.get(source);
+        if (route != null) {
+            routeHits++;
+            return route;
+        }
+        routeMisses++;
+        route = computeRoute(source);
+        routes.put(source, route);
+        return route;
+    }
+
+    private long[] computeRoute(long source) {
+        Map<Long, Integer> distances = new HashMap<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        distances.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            long current = queue.poll();
+            int distance = distances.get(current);
+            BlockPos pos = BlockPos.fromLong(current);
+            for (EnumFacing facing : EnumFacing.values()) {
+                long neighbour = pos.offset(facing).toLong();
+                if (nodes.contains(neighbour) && !distances.containsKey(neighbour)) {
+                    distances.put(neighbour, distance + 1);
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        List<Long> reachable = new ArrayList<>();
+        for (long sink : sinks.keySet()) {
+            if (sink != source && distances.containsKey(sink)) {
+                reachable.add(sink);
+            }
+        }
+        reachable.sort((a, b) -> {
+            int priority = Integer.compare(sinks.get(b), sinks.get(a));
+            return priority != 0 ? priority : Integer.compare(distances.get(a), distances.get(b));
+        });
+        long[] route = new long[reachable.size()];
+        for (int i = 0; i < route.length; i++) {
+            route[i] = reachable.get(i);
+        }
+        return route;
+    }
+
+    private IItemHandler getHandler(long pos) {
+        BlockPos blockPos = BlockPos.fromLong(pos);
+        if (!world.isBlockLoaded(blockPos))
+            return null;
+        TileEntity tile = world.getTileEntity(blockPos);
+        if (tile == null || tile.isInvalid())
+            return null;
+        return CapabilityUtils.getCapability(tile, CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null);
+    }
+
+    public int getItemsLastTick() {
+        return itemsLastTick;
+    }
+
+    public long getItemsMoved() {
+        return itemsMoved;
+    }
+
+    public long getRouteCacheHits() {
+        return routeHits;
+    }
+
+    public long getRouteCacheMisses() {
+        return routeMisses;
+    }
+
+    /**
+     * how often the topology changed and every route had to be dropped
+     */
+    public int getRouteRebuilds() {
+        return routeRebuilds;
+    }
+
+    private static class TransferKey {
+        private final long source;
+        private final ItemKey item;
+
+        private TransferKey(long source, ItemKey item) {
+            this.source = source;
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TransferKey))
+                return false;
+            TransferKey key = (TransferKey) obj;
+            return source == key.source && Objects.equals(item, key.item);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(source) + (item == null ? 0 : item.hashCode());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package me.creepinson.creepinoutils.api.network.inventory;
+
+import me.creepinson.creepinoutils.api.util.item.InventorySnapshot;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.*;
+
+/**
+ * Network wide index of the items in a set of {@link IItemHandler}s.
+ * Every kind of item ({@link ItemKey}) maps to its total count and the slots holding it,
+ * so counting or extracting an item only touches the slots that actually hold it instead of every slot of the network.
+ * <br>
+ * The index is kept up to date by {@link #onSlotChanged(IItemHandler, int)} for handlers that report their changes
+ * and by {@link #update()} which diffs the slots against an {@link InventorySnapshot} of every handler.
+ */
+public class NetworkItemIndex {
+    private final Map<IItemHandler, HandlerSlots> handlers = new IdentityHashMap<>();
+    private final List<HandlerSlots> handlersById = new ArrayList<>();
+    private final Map<ItemKey, Entry> entries = new HashMap<>();
+    private final InventorySnapshot.ISlotChangeListener listener = (handler, slot, stack) -> {
+        HandlerSlots slots = handlers.get(handler);
+        if (slot < slots.keys.length) {
+            refreshSlot(slots, slot, stack);
+        }
+    };
+    private int scanStride = Integer.MAX_VALUE;
+
+    public void addHandler(IItemHandler handler) {
+        if (handlers.containsKey(handler))
+            return;
+        int id = handlersById.indexOf(null);
+        if (id == -1) {
+            id = handlersById.size();
+            handlersById.add(null);
+        }
+        HandlerSlots slots = new HandlerSlots(id, handler);
+        slots.snapshot.setStride(scanStride);
+        handlers.put(handler, slots);
+        handlersById.set(id, slots);
+        resize(slots);
+        slots.snapshot.scanAll(listener);
+    }
+
+    public void removeHandler(IItemHandler handler) {
+        HandlerSlots slots = handlers.remove(handler);
+        if (slots == null)
+            return;
+        for (int slot = 0; slot < slots.keys.length; slot++) {
+            clearSlot(slots, slot);
+        }
+        handlersById.set(slots.id, null);
+    }
+
+    /**
+     * add and remove handlers so the index covers exactly the given ones, handlers already indexed are kept as they are
+     */
+    public void setHandlers(Collection<IItemHandler> newHandlers) {
+        Set<IItemHandler> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+        keep.addAll(newHandlers);
+        for (IItemHandler handler : new ArrayList<>(handlers.keySet())) {
+            if (!keep.contains(handler)) {
+                removeHandler(handler);
+            }
+        }
+        for (IItemHandler handler : newHandlers) {
+            addHandler(handler);
+        }
+    }
+
+    public Set<IItemHandler> getHandlers() {
+        return Collections.unmodifiableSet(handlers.keySet());
+    }
+
+    /**
+     * @param stride the most slots of each handler diffed per {@link #update()}, spreads big inventories over several ticks
+     */
+    public void setScanStride(int stride) {
+        scanStride = Math.max(1, stride);
+        for (HandlerSlots slots : handlers.values()) {
+            slots.snapshot.setStride(scanStride);
+        }
+    }
+
+    public void clear() {
+        handlers.clear();
+        handlersById.clear();
+        entries.clear();
+    }
+
+    /**
+     * re-read a single slot, call this from handlers that know when their contents change
+     */
+    public void onSlotChanged(IItemHandler handler, int slot) {
+        HandlerSlots slots = handlers.get(handler);
+        if (slots != null && slot >= 0 && slot < slots.keys.length) {
+            refreshSlot(slots, slot, handler.getStackInSlot(slot));
+        }
+    }
+
+    /**
+     * diff the slots of every handler against their snapshots, only changed slots touch the index
+     *
+     * @return how many slots changed
+     */
+    public int update() {
+        int changed = 0;
+        for (HandlerSlots slots : handlers.values()) {
+            resize(slots);
+            changed += slots.snapshot.scan(listener);
+        }
+        return changed;
+    }
+
+    private void resize(HandlerSlots slots) {
+        int size = slots.handler.getSlots();
+        if (size != slots.keys.length) {
+            for (int slot = size; slot < slots.keys.length; slot++) {
+                clearSlot(slots, slot);
+            }
+            slots.keys = Arrays.copyOf(slots.keys, size);
+            slots.counts = Arrays.copyOf(slots.counts, size);
+        }
+    }
+
+    private void refreshSlot(HandlerSlots slots, int slot, ItemStack stack) {
+        ItemKey old = slots.keys[slot];
+        if (stack.isEmpty()) {
+            clearSlot(slots, slot);
+            return;
+        }
+        if (old != null && old.matches(stack)) {
+            int count = stack.getCount();
+            if (count != slots.counts[slot]) {
+                entries.get(old).count += count - slots.counts[slot];
+                slots.counts[slot] = count;
+            }
+            return;
+        }
+        clearSlot(slots, slot);
+        ItemKey key = ItemKey.of(stack);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        entry.count += stack.getCount();
+        entry.locations.add(location(slots.id, slot));
+        slots.keys[slot] = key;
+        slots.counts[slot] = stack.getCount();
+    }
+
+    private void clearSlot(HandlerSlots slots, int slot) {
+        ItemKey old = slots.keys[slot];
+        if (old == null)
+            return;
+        Entry entry = entries.get(old);
+        entry.count -= slots.counts[slot];
+        entry.locations.remove(location(slots.id, slot));
+        if (entry.locations.isEmpty()) {
+            entries.remove(old);
+        }
+        slots.keys[slot] = null;
+        slots.counts[slot] = 0;
+    }
+
+    private static long location(int handlerId, int slot) {
+        return (long) handlerId << 32 | (slot & 0xFFFFFFFFL);
+    }
+
+    public long count(ItemStack stack) {
+        return count(ItemKey.of(stack));
+    }
+
+    public long count(ItemKey key) {
+        Entry entry = key == null ? null : entries.get(key);
+        return entry == null ? 0 : entry.count;
+    }
+
+    /**
+     * every kind of item currently on the network
+     */
+    public Set<ItemKey> getKeys() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * the slots holding the given kind of item, in the order they were indexed
+     */
+    public List<ItemLocation> getLocations(ItemKey key) {
+        Entry entry = key == null ? null : entries.get(key);
+        if (entry == null)
+            return Collections.emptyList();
+        List<ItemLocation> locations = new ArrayList<>(entry.locations.size());
+        for (long location : entry.locations) {
+            locations.add(new ItemLocation(handlersById.get((int) (location >>> 32)).handler, (int) location));
+        }
+        return locations;
+    }
+
+    /**
+     * extract up to amount of the given kind of item from wherever the index says it is.
+     * every slot is checked with a simulated extract first, slots the index is wrong about are re-indexed and left alone
+     *
+     * @return the extracted stack or {@link ItemStack#EMPTY}
+     */
+    public ItemStack extract(ItemStack template, int amount, boolean simulate) {
+        ItemKey key = ItemKey.of(template);
+        int extracted = 0;
+        for (ItemLocation location : getLocations(key)) {
+            if (extracted >= amount)
+                break;
+            ItemStack stack = location.handler.extractItem(location.slot, amount - extracted, true);
+            if (stack.isEmpty() || !key.matches(stack)) {
+                // the index is stale for this slot
+                onSlotChanged(location.handler, location.slot);
+                continue;
+            }
+            if (!simulate) {
+                stack = location.handler.extractItem(location.slot, stack.getCount(), false);
+                if (!stack.isEmpty() && !key.matches(stack)) {
+                    // the handler gave something else than it promised, hand it back
+                    location.handler.insertItem(location.slot, stack, false);
+                    stack = ItemStack.EMPTY;
+                }
+                onSlotChanged(location.handler, location.slot);
+            }
+            extracted += stack.getCount();
+        }
+        return extracted == 0 ? ItemStack.EMPTY : key.toStack(extracted);
+    }
+
+    public static class ItemLocation {
+        public final IItemHandler handler;
+        public final int slot;
+
+        public ItemLocation(IItemHandler handler, int slot) {
+            this.handler = handler;
+            this.slot = slot;
+        }
+    }
+
+    private static class Entry {
+        private long count;
+        private final Set<Long> locations = new LinkedHashSet<>();
+    }
+
+    private static class HandlerSlots {
+        private final int id;
+        private final IItemHandler handler;
+        private final InventorySnapshot snapshot;
+        private ItemKey[] keys = new ItemKey[0];
+        private int[] counts = new int[0];
+
+        private HandlerSlots(int id, IItemHandler handler) {
+            this.id = id;
+            this.handler = handler;
+            this.snapshot = new InventorySnapshot(handler);
+        }
+    }
+}
@@ -0,0 +1,624 @@
+package me.creepinson.creepinoutils.api.network.path;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import me.creepinson.creepinoutils.api.util.math.HashUtils;
+import me.creepinson.creepinoutils.api.util.world.BlockEditBatch;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Finds a path of face to face steps between two blocks like {@link PathfinderAStar}, but plans on sections first.
+ * Every 16x16x16 section is abstracted into portals, one cell per connected opening of each of its faces,
+ * and the walking distances between the portals of a section are computed once.
+ * Routes have to pass openings through their portal cell, so they can be a few steps longer than the shortest one.
+ * A search runs A* over the portals and only walks block by block inside the sections the chosen route passes.
+ * <br>
+ * Abstractions are built when a search first needs them and kept until {@link #onBlockChanged(BlockPos)} or
+ * {@link #invalidateSection(int, int, int)} drops them, so only the sections touching a change are rebuilt.
+ * Finders made by {@link #forWorld(World, Predicate)} do this themselves on neighbour notifications and {@link BlockEditBatch}es,
+ * rebuild the column of a chunk when it loads, drop it when it unloads and never keep sections of chunks that are not loaded.
+ * Changes made without notifying neighbours still have to be reported through {@link #onBlockChanged(BlockPos)}.
+ * Only server worlds are followed, the events of client worlds run on another thread, so finders of a client world have to be told about changes too.
+ */
+@Mod.EventBusSubscriber
+public class HierarchicalPathfinder {
+    private static final int[][] AXES = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+    /**
+     * the finders made by {@link #forWorld(World, Predicate)} per server world, held weakly so a finder nobody uses goes away.
+     * only touched from the server thread
+     */
+    private static final Map<World, Set<HierarchicalPathfinder>> WATCHED = new WeakHashMap<>();
+
+    private final IPassableCallBack callBack;
+    /**
+     * the world the cells are read from, null for a finder over a plain callback
+     */
+    private final World world;
+    private final Long2ObjectMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    /**
+     * the most portals a single search expands before giving up
+     */
+    private int searchLimit = 20000;
+
+    private long expanded;
+    private long sectionsBuilt;
+
+    public HierarchicalPathfinder(IPassableCallBack callBack) {
+        this(callBack, null);
+    }
+
+    private HierarchicalPathfinder(IPassableCallBack callBack, World world) {
+        this.callBack = callBack;
+        this.world = world;
+    }
+
+    /**
+     * walk through every block whose state matches, blocks in chunks that are not loaded and outside the world are blocked.
+     * on a server world the finder follows the changes of the world until it is unloaded
+     */
+    public static HierarchicalPathfinder forWorld(World world, Predicate<IBlockState> passable) {
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder((finder, x, y, z) -> {
+            if (y < 0 || y >= world.getHeight())
+                return false;
+            Chunk chunk = world.getChunkProvider().getLoadedChunk(x >> 4, z >> 4);
+            return chunk != null && passable.test(chunk.getBlockState(x, y, z));
+        }, world);
+        if (world.isRemote)
+            return pathfinder;
+        Set<HierarchicalPathfinder> finders = WATCHED.get(world);
+        if (finders == null) {
+            finders = Collections.newSetFromMap(new WeakHashMap<>());
+            WATCHED.put(world, finders);
+        }
+        finders.add(pathfinder);
+        return pathfinder;
+    }
+
+    /**
+     * tell every finder of the world that the block changed
+     */
+    public static void invalidate(World world, BlockPos pos) {
+        Set<HierarchicalPathfinder> finders = getWatching(world);
+        if (finders == null)
+            return;
+        for (HierarchicalPathfinder finder : finders) {
+            finder.onBlockChanged(pos);
+        }
+    }
+
+    /**
+     * tell every finder of the world that the blocks changed
+     *
+     * @param positions packed like {@link BlockPos#toLong()}
+     */
+    public static void invalidate(World world, Collection<Long> positions) {
+        Set<HierarchicalPathfinder> finders = getWatching(world);
+        if (finders == null)
+            return;
+        for (HierarchicalPathfinder finder : finders) {
+            for (long pos : positions) {
+                finder.invalidateSection(x(pos) >> 4, y(pos) >> 4, z(pos) >> 4);
+            }
+        }
+    }
+
+    /**
+     * tell every finder of the world to forget the sections of the chunk column
+     */
+    public static void invalidateColumn(World world, int chunkX, int chunkZ) {
+        Set<HierarchicalPathfinder> finders = getWatching(world);
+        if (finders == null)
+            return;
+        for (HierarchicalPathfinder finder : finders) {
+            for (int sy = 0; sy < world.getHeight() >> 4; sy++) {
+                finder.invalidateSection(chunkX, sy, chunkZ);
+            }
+        }
+    }
+
+    /**
+     * @return the finders following the world, null if there are none or it is a client world
+     */
+    private static Set<HierarchicalPathfinder> getWatching(World world) {
+        if (world.isRemote)
+            return null;
+        Set<HierarchicalPathfinder> finders = WATCHED.get(world);
+        return finders == null || finders.isEmpty() ? null : finders;
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isRemote)
+            return;
+        invalidate(event.getWorld(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getWorld().isRemote)
+            return;
+        // the sections next to it were built while it read as blocked
+        invalidateColumn(event.getWorld(), event.getChunk().x, event.getChunk().z);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld().isRemote)
+            return;
+        invalidateColumn(event.getWorld(), event.getChunk().x, event.getChunk().z);
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote)
+            return;
+        WATCHED.remove(event.getWorld());
+    }
+
+    public void setSearchLimit(int searchLimit) {
+        this.searchLimit = searchLimit;
+    }
+
+    /**
+     * @return every block from start to goal, both included, or null if there is no path within the search limit
+     */
+    public List<BlockPos> findPath(BlockPos start, BlockPos goal) {
+        long startPos = start.toLong(), goalPos = goal.toLong();
+        if (!callBack.isPassable(this, start.getX(), start.getY(), start.getZ()) || !callBack.isPassable(this, goal.getX(), goal.getY(), goal.getZ()))
+            return null;
+        if (startPos == goalPos)
+            return new ArrayList<>(Collections.singletonList(start.toImmutable()));
+
+        Section startSection = getSection(start.getX() >> 4, start.getY() >> 4, start.getZ() >> 4);
+        Section goalSection = getSection(goal.getX() >> 4, goal.getY() >> 4, goal.getZ() >> 4);
+        int[] fromStart = startSection.distances(localIndex(start.getX(), start.getY(), start.getZ()));
+        int[] toGoal = goalSection.distances(localIndex(goal.getX(), goal.getY(), goal.getZ()));
+
+        // A* over the portals, start and goal join the graph through their walking distances inside their sections
+        Long2IntMap gScore = new Long2IntOpenHashMap();
+        gScore.defaultReturnValue(Integer.MAX_VALUE);
+        Long2LongMap cameFrom = new Long2LongOpenHashMap();
+        PriorityQueue<Node> open = new PriorityQueue<>();
+        gScore.put(startPos, 0);
+        open.add(new Node(startPos, 0, heuristic(startPos, goalPos)));
+        int searched = 0;
+        while (!open.isEmpty()) {
+            Node node = open.poll();
+            if (node.g > gScore.get(node.pos))
+                continue;
+            if (node.pos == goalPos)
+                return refine(startPos, goalPos, cameFrom);
+            if (++searched > searchLimit)
+                break;
+            expanded++;
+
+            Section section = getSection(x(node.pos) >> 4, y(node.pos) >> 4, z(node.pos) >> 4);
+            int portal = section.indexOf(node.pos);
+            if (node.pos == startPos) {
+                for (int i = 0; i < startSection.portals.length; i++) {
+                    int distance = fromStart[localIndex(startSection.portals[i])];
+                    if (distance >= 0)
+                        relax(open, gScore, cameFrom, node.pos, startSection.portals[i], distance, goalPos);
+                }
+                if (startSection == goalSection && fromStart[localIndex(goalPos)] >= 0)
+                    relax(open, gScore, cameFrom, node.pos, goalPos, fromStart[localIndex(goalPos)], goalPos);
+            }
+            if (portal < 0)
+                continue;
+            for (int i = 0; i < section.portals.length; i++) {
+                int distance = section.paths[portal][i];
+                if (i != portal && distance >= 0)
+                    relax(open, gScore, cameFrom, node.pos, section.portals[i], distance, goalPos);
+            }
+            for (long partner : section.partners[portal]) {
+                relax(open, gScore, cameFrom, node.pos, partner, 1, goalPos);
+            }
+            if (section == goalSection && toGoal[localIndex(node.pos)] >= 0)
+                relax(open, gScore, cameFrom, node.pos, goalPos, toGoal[localIndex(node.pos)], goalPos);
+        }
+        return null;
+    }
+
+    private void relax(PriorityQueue<Node> open, Long2IntMap gScore, Long2LongMap cameFrom, long from, long to, int cost, long goal) {
+        int g = gScore.get(from) + cost;
+        if (g < gScore.get(to)) {
+            gScore.put(to, g);
+            cameFrom.put(to, from);
+            open.add(new Node(to, g, g + heuristic(to, goal)));
+        }
+    }
+
+    /**
+     * walk the chosen portals block by block, every leg stays inside one section or steps across a face
+     */
+    private List<BlockPos> refine(long start, long goal, Long2LongMap cameFrom) {
+        List<Long> route = new ArrayList<>();
+        for (long pos = goal; pos != start; pos = cameFrom.get(pos)) {
+            route.add(pos);
+        }
+        route.add(start);
+        Collections.reverse(route);
+
+        List<BlockPos> path = new ArrayList<>();
+        path.add(BlockPos.fromLong(start));
+        for (int i = 1; i < route.size(); i++) {
+            long from = route.get(i - 1), to = route.get(i);
+            int sx = x(from) >> 4, sy = y(from) >> 4, sz = z(from) >> 4;
+            if (sx == x(to) >> 4 && sy == y(to) >> 4 && sz == z(to) >> 4) {
+                Section section = getSection(sx, sy, sz);
+                int[] leg = section.walk(localIndex(from), localIndex(to));
+                for (int step = 1; step < leg.length; step++) {
+                    path.add(new BlockPos((sx << 4) + (leg[step] & 15), (sy << 4) + (leg[step] >> 8), (sz << 4) + ((leg[step] >> 4) & 15)));
+                }
+            } else {
+                path.add(BlockPos.fromLong(to));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * forget the cells of the section holding the position, it and its neighbours rebuild their portals when next searched
+     */
+    public void onBlockChanged(BlockPos pos) {
+        invalidateSection(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+    }
+
+    /**
+     * forget everything known about the section, its neighbours recompute the portals they share with it
+     */
+    public void invalidateSection(int sx, int sy, int sz) {
+        sections.remove(HashUtils.packBlock(sx, sy, sz));
+        for (int[] axis : AXES) {
+            dropPortals(sx + axis[0], sy + axis[1], sz + axis[2]);
+            dropPortals(sx - axis[0], sy - axis[1], sz - axis[2]);
+        }
+    }
+
+    private void dropPortals(int sx, int sy, int sz) {
+        Section section = sections.get(HashUtils.packBlock(sx, sy, sz));
+        if (section != null) {
+            section.portals = null;
+        }
+    }
+
+    public void clear() {
+        sections.clear();
+    }
+
+    /**
+     * @return portals expanded by every search so far, compare with the blocks a search over single blocks expands
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    public long getSectionsBuilt() {
+        return sectionsBuilt;
+    }
+
+    public void resetStats() {
+        expanded = 0;
+        sectionsBuilt = 0;
+    }
+
+    private Section getSection(int sx, int sy, int sz) {
+        Section section = getCells(sx, sy, sz);
+        if (section.portals == null) {
+            buildPortals(section);
+        }
+        return section;
+    }
+
+    /**
+     * the section with at least its passable cells read, sections of chunks that are not loaded are all blocked and not kept
+     */
+    private Section getCells(int sx, int sy, int sz) {
+        long key = HashUtils.packBlock(sx, sy, sz);
+        Section section = sections.get(key);
+        if (section == null) {
+            section = new Section(sx, sy, sz);
+            if (world != null && world.getChunkProvider().getLoadedChunk(sx, sz) == null)
+                return section;
+            for (int index = 0; index < 4096; index++) {
+                if (callBack.isPassable(this, (sx << 4) + (index & 15), (sy << 4) + (index >> 8), (sz << 4) + ((index >> 4) & 15))) {
+                    section.cells[index >> 6] |= 1L << index;
+                }
+            }
+            sections.put(key, section);
+        }
+        return section;
+    }
+
+    private void buildPortals(Section section) {
+        sectionsBuilt++;
+        TreeMap<Long, List<Long>> portals = new TreeMap<>();
+        if (!section.isEmpty()) {
+            for (int axis = 0; axis < 3; axis++) {
+                int[] d = AXES[axis];
+                Section upper = getCells(section.x + d[0], section.y + d[1], section.z + d[2]);
+                for (int[] pair : faceOpenings(section, upper, axis)) {
+                    addPortal(portals, section, pair[0], upper, pair[1]);
+                }
+                Section lower = getCells(section.x - d[0], section.y - d[1], section.z - d[2]);
+                for (int[] pair : faceOpenings(lower, section, axis)) {
+                    addPortal(portals, section, pair[1], lower, pair[0]);
+                }
+            }
+        }
+        int count = portals.size();
+        long[] positions = new long[count];
+        long[][] partners = new long[count][];
+        int i = 0;
+        for (Map.Entry<Long, List<Long>> entry : portals.entrySet()) {
+            positions[i] = entry.getKey();
+            partners[i] = new long[entry.getValue().size()];
+            for (int j = 0; j < partners[i].length; j++) {
+                partners[i][j] = entry.getValue().get(j);
+            }
+            i++;
+        }
+        int[][] paths = new int[count][count];
+        for (int from = 0; from < count; from++) {
+            int[] distances = section.distances(localIndex(positions[from]));
+            for (int to = 0; to < count; to++) {
+                paths[from][to] = distances[localIndex(positions[to])];
+            }
+        }
+        section.partners = partners;
+        section.paths = paths;
+        section.portals = positions;
+    }
+
+    private static void addPortal(TreeMap<Long, List<Long>> portals, Section section, int local, Section other, int otherLocal) {
+        long pos = section.toLong(local);
+        List<Long> partners = portals.get(pos);
+        if (partners == null) {
+            partners = new ArrayList<>(1);
+            portals.put(pos, partners);
+        }
+        partners.add(other.toLong(otherLocal));
+    }
+
+    /**
+     * One portal pair per connected opening of the face between lower and the section after it along the axis.
+     * Only depends on the cells of both sections, so both of them always agree on their shared portals.
+     *
+     * @return the local index in lower and in upper of every portal pair
+     */
+    private static List<int[]> faceOpenings(Section lower, Section upper, int axis) {
+        List<int[]> openings = new ArrayList<>();
+        if (lower.isEmpty() || upper.isEmpty())
+            return openings;
+        boolean[] open = new boolean[256];
+        for (int cell = 0; cell < 256; cell++) {
+            open[cell] = lower.isPassable(faceIndex(axis, 15, cell & 15, cell >> 4)) && upper.isPassable(faceIndex(axis, 0, cell & 15, cell >> 4));
+        }
+        int[] queue = new int[256];
+        for (int first = 0; first < 256; first++) {
+            if (!open[first])
+                continue;
+            // collect the opening, its middle cell in discovery order becomes the portal
+            int head = 0, tail = 0;
+            queue[tail++] = first;
+            open[first] = false;
+            while (head < tail) {
+                int cell = queue[head++];
+                int u = cell & 15, v = cell >> 4;
+                if (u > 0 && open[cell - 1]) {
+                    open[cell - 1] = false;
+                    queue[tail++] = cell - 1;
+                }
+                if (u < 15 && open[cell + 1]) {
+                    open[cell + 1] = false;
+                    queue[tail++] = cell + 1;
+                }
+                if (v > 0 && open[cell - 16]) {
+                    open[cell - 16] = false;
+                    queue[tail++] = cell - 16;
+                }
+                if (v < 15 && open[cell + 16]) {
+                    open[cell + 16] = false;
+                    queue[tail++] = cell + 16;
+                }
+            }
+            int portal = queue[tail / 2];
+            openings.add(new int[]{faceIndex(axis, 15, portal & 15, portal >> 4), faceIndex(axis, 0, portal & 15, portal >> 4)});
+        }
+        return openings;
+    }
+
+    /**
+     * local index of the cell (u, v) on the face where the coordinate along the axis is fixed
+     */
+    private static int faceIndex(int axis, int fixed, int u, int v) {
+        switch (axis) {
+            case 0:
+                return localIndex(fixed, v, u);
+            case 1:
+                return localIndex(u, fixed, v);
+            default:
+                return localIndex(u, v, fixed);
+        }
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    private static int localIndex(long pos) {
+        return localIndex(x(pos), y(pos), z(pos));
+    }
+
+    private static int x(long pos) {
+        return (int) (pos >> 38);
+    }
+
+    private static int y(long pos) {
+        return (int) (pos << 26 >> 52);
+    }
+
+    private static int z(long pos) {
+        return (int) (pos << 38 >> 38);
+    }
+
+    private static int heuristic(long from, long to) {
+        return Math.abs(x(from) - x(to)) + Math.abs(y(from) - y(to)) + Math.abs(z(from) - z(to));
+    }
+
+    public interface IPassableCallBack {
+        /**
+         * @return true if a path may go through the block, called once per block when its section is first needed
+         */
+        boolean isPassable(HierarchicalPathfinder finder, int x, int y, int z);
+    }
+
+    private static final class Node implements Comparable<Node> {
+        private final long pos;
+        private final int g;
+        private final int f;
+
+        private Node(long pos, int g, int f) {
+            this.pos = pos;
+            this.g = g;
+            this.f = f;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            return f != other.f ? Integer.compare(f, other.f) : Integer.compare(other.g, g);
+        }
+    }
+
+    private static final class Section {
+        private final int x, y, z;
+        /**
+         * one bit per block in y, z, x order, set if it can be walked through
+         */
+        private final long[] cells = new long[64];
+        /**
+         * sorted positions of the portals, null until they are built or after a neighbour changed
+         */
+        private long[] portals;
+        /**
+         * the positions across the face every portal leads to
+         */
+        private long[][] partners;
+        /**
+         * walking distance between every two portals inside the section, -1 if one cannot reach the other
+         */
+        private int[][] paths;
+
+        private Section(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        private boolean isPassable(int index) {
+            return (cells[index >> 6] & 1L << index) != 0;
+        }
+
+        private boolean isEmpty() {
+            for (long bits : cells) {
+                if (bits != 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private long toLong(int index) {
+            return HashUtils.packBlock((x << 4) + (index & 15), (y << 4) + (index >> 8), (z << 4) + ((index >> 4) & 15));
+        }
+
+        private int indexOf(long pos) {
+            return Arrays.binarySearch(portals, pos);
+        }
+
+        /**
+         * @return the steps from the local index to every cell of the section without leaving it, -1 where it cannot go
+         */
+        private int[] distances(int from) {
+            int[] distances = new int[4096];
+            Arrays.fill(distances, -1);
+            if (!isPassable(from))
+                return distances;
+            int[] queue = new int[4096];
+            int head = 0, tail = 0;
+            queue[tail++] = from;
+            distances[from] = 0;
+            while (head < tail) {
+                int cell = queue[head++];
+                int next = distances[cell] + 1;
+                int cx = cell & 15, cy = cell >> 8, cz = (cell >> 4) & 15;
+                if (cx > 0)
+                    tail = visit(distances, queue, tail, cell - 1, next);
+                if (cx < 15)
+                    tail = visit(distances, queue, tail, cell + 1, next);
+                if (cz > 0)
+                    tail = visit(distances, queue, tail, cell - 16, next);
+                if (cz < 15)
+                    tail = visit(distances, queue, tail, cell + 16, next);
+                if (cy > 0)
+                    tail = visit(distances, queue, tail, cell - 256, next);
+                if (cy < 15)
+                    tail = visit(distances, queue, tail, cell + 256, next);
+            }
+            return distances;
+        }
+
+        private int visit(int[] distances, int[] queue, int tail, int cell, int distance) {
+            if (distances[cell] == -1 && isPassable(cell)) {
+                distances[cell] = distance;
+                queue[tail++] = cell;
+            }
+            return tail;
+        }
+
+        /**
+         * @return the local indices of a shortest walk from one cell to the other inside the section, both included
+         */
+        private int[] walk(int from, int to) {
+            int[] distances = distances(to);
+            int length = distances[from];
+            if (length < 0)
+                throw new IllegalStateException("Portal route leads through a blocked section");
+            int[] walk = new int[length + 1];
+            walk[0] = from;
+            int cell = from;
+            for (int step = 1; step <= length; step++) {
+                int cx = cell & 15, cy = cell >> 8, cz = (cell >> 4) & 15;
+                int want = length - step;
+                if (cx > 0 && distances[cell - 1] == want)
+                    cell = cell - 1;
+                else if (cx < 15 && distances[cell + 1] == want)
+                    cell = cell + 1;
+                else if (cz > 0 && distances[cell - 16] == want)
+                    cell = cell - 16;
+                else if (cz < 15 && distances[cell + 16] == want)
+                    cell = cell + 16;
+                else if (cy > 0 && distances[cell - 256] == want)
+                    cell = cell - 256;
+                else
+                    cell = cell + 256;
+                walk[step] = cell;
+            }
+            return walk;
+        }
+    }
+}
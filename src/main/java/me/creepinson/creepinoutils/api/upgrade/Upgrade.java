@@ -10,12 +10,16 @@ import net.minecraftforge.common.util.Constants.NBT;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 public class Upgrade {
-    public static final HashMap<String, Upgrade> UPGRADES = new HashMap<>();
+    /**
+     * every upgrade by name, iterates in ordinal order
+     */
+    public static final HashMap<String, Upgrade> UPGRADES = new LinkedHashMap<>();
+    private static final List<Upgrade> BY_ORDINAL = new ArrayList<>();
 
     public static final Upgrade SPEED = new Upgrade("speed", 25, EnumColor.RED);
 
@@ -23,45 +27,95 @@ public class Upgrade {
     public static final Upgrade FILTER = new Upgrade("filter", Integer.MAX_VALUE, EnumColor.DARK_AQUA);
     public static final Upgrade ANCHOR = new Upgrade("anchor", 1, EnumColor.DARK_GREEN);
 
-    static {
-        UPGRADES.put(SPEED.name, SPEED);
-    }
-
     private String name;
     private int maxStack;
     private EnumColor color;
+    private final int ordinal;
+    private final String nameKey;
+    private final String descriptionKey;
 
     Upgrade(String s, int max, EnumColor c) {
         name = s;
+        nameKey = ("upgrade." + s).intern();
+        descriptionKey = ("upgrade." + s + ".desc").intern();
         maxStack = max;
         color = c;
+        ordinal = BY_ORDINAL.size();
+        BY_ORDINAL.add(this);
+        UPGRADES.put(name, this);
+    }
+
+    /**
+     * dense index of this upgrade in registration order, only valid for the running game, save upgrades by {@link #getKey()}
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public String getKey() {
+        return name;
+    }
+
+    public static int count() {
+        return BY_ORDINAL.size();
     }
 
+    public static Upgrade byOrdinal(int ordinal) {
+        return BY_ORDINAL.get(ordinal);
+    }
+
+    @Nullable
+    public static Upgrade byKey(String name) {
+        return UPGRADES.get(name);
+    }
+
+    /**
+     * read the amounts written by {@link #saveMap(Map, NBTTagCompound)}, upgrades that no longer exist are skipped
+     */
     public static Map<Upgrade, Integer> buildMap(@Nullable NBTTagCompound nbtTags) {
-        Map<Upgrade, Integer> upgrades = new HashMap<>();
+        Map<Upgrade, Integer> upgrades = new LinkedHashMap<>();
         if (nbtTags != null) {
-            if (nbtTags.hasKey("upgrades")) {
+            if (nbtTags.hasKey("upgrades", NBT.TAG_COMPOUND)) {
+                NBTTagCompound compound = nbtTags.getCompoundTag("upgrades");
+                for (Upgrade upgrade : BY_ORDINAL) {
+                    if (compound.hasKey(upgrade.name, NBT.TAG_INT)) {
+                        upgrades.put(upgrade, compound.getInteger(upgrade.name));
+                    }
+                }
+            } else if (nbtTags.hasKey("upgrades", NBT.TAG_LIST)) {
+                // older saves, a list of type and amount compounds
                 NBTTagList list = nbtTags.getTagList("upgrades", NBT.TAG_COMPOUND);
                 for (int tagCount = 0; tagCount < list.tagCount(); tagCount++) {
                     NBTTagCompound compound = list.getCompoundTagAt(tagCount);
-                    Upgrade upgrade = Upgrade.getUpgradesArray()[compound.getInteger("type")];
-                    upgrades.put(upgrade, compound.getInteger("amount"));
+                    Upgrade upgrade = byKey(compound.getString("type"));
+                    if (upgrade != null) {
+                        upgrades.put(upgrade, compound.getInteger("amount"));
+                    }
                 }
             }
         }
         return upgrades;
     }
 
+    /**
+     * @return every upgrade in ordinal order
+     */
     public static Upgrade[] getUpgradesArray() {
-        return UPGRADES.values().toArray(new Upgrade[0]);
+        return BY_ORDINAL.toArray(new Upgrade[0]);
     }
 
+    /**
+     * write the amounts as one int per upgrade name, in ordinal order
+     */
     public static void saveMap(Map<Upgrade, Integer> upgrades, NBTTagCompound nbtTags) {
-        NBTTagList list = new NBTTagList();
-        for (Entry<Upgrade, Integer> entry : upgrades.entrySet()) {
-            list.appendTag(getTagFor(entry.getKey(), entry.getValue()));
+        NBTTagCompound compound = new NBTTagCompound();
+        for (Upgrade upgrade : BY_ORDINAL) {
+            Integer amount = upgrades.get(upgrade);
+            if (amount != null && amount > 0) {
+                compound.setInteger(upgrade.name, amount);
+            }
         }
-        nbtTags.setTag("upgrades", list);
+        nbtTags.setTag("upgrades", compound);
     }
 
     public static NBTTagCompound getTagFor(Upgrade upgrade, int amount) {
@@ -72,11 +126,11 @@ public class Upgrade {
     }
 
     public String getName() {
-        return LangUtils.localize("upgrade." + name);
+        return LangUtils.localize(nameKey);
     }
 
     public String getDescription() {
-        return LangUtils.localize("upgrade." + name + ".desc");
+        return LangUtils.localize(descriptionKey);
     }
 
     public int getMax() {
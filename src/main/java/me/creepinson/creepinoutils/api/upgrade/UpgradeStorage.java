@@ -0,0 +1,196 @@
+package me.creepinson.creepinoutils.api.upgrade;
+
+import me.creepinson.creepinoutils.api.network.inventory.ItemKey;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.common.util.Constants.NBT;
+
+import java.util.*;
+
+/**
+ * The upgrades installed in a tile, stored as one count per {@link Upgrade#getOrdinal()}.
+ * Looking up the amount of an upgrade is an array access, looking up the upgrade an item installs is one hash lookup.
+ * <br>
+ * Saved by upgrade name through {@link Upgrade#saveMap(Map, NBTTagCompound)} so ordinals can change between versions.
+ */
+public class UpgradeStorage {
+    private int[] counts = new int[Upgrade.count()];
+    private UpgradeInfo[] infos = new UpgradeInfo[Upgrade.count()];
+    private final Map<ItemKey, UpgradeInfo> byStack = new HashMap<>();
+
+    public int getCount(Upgrade upgrade) {
+        int ordinal = upgrade.getOrdinal();
+        return ordinal < counts.length ? counts[ordinal] : 0;
+    }
+
+    public boolean has(Upgrade upgrade) {
+        return getCount(upgrade) > 0;
+    }
+
+    /**
+     * @return the info the upgrade was installed with or null if it is not installed
+     */
+    public UpgradeInfo getByUpgrade(Upgrade upgrade) {
+        int ordinal = upgrade.getOrdinal();
+        return ordinal < infos.length ? infos[ordinal] : null;
+    }
+
+    /**
+     * @return the installed upgrade the stack is the item of, or null
+     */
+    public UpgradeInfo getByStack(ItemStack stack) {
+        ItemKey key = ItemKey.of(stack);
+        return key == null ? null : byStack.get(key);
+    }
+
+    /**
+     * install one more of the upgrade
+     *
+     * @return false if it is already installed {@link Upgrade#getMax()} times
+     */
+    public boolean add(UpgradeInfo info) {
+        int ordinal = info.upgrade.getOrdinal();
+        ensureCapacity(ordinal);
+        if (counts[ordinal] >= info.upgrade.getMax())
+            return false;
+        if (infos[ordinal] == null) {
+            setInfo(ordinal, info);
+        }
+        counts[ordinal]++;
+        return true;
+    }
+
+    /**
+     * uninstall one of the upgrade
+     *
+     * @return the item of the removed upgrade or {@link ItemStack#EMPTY} if none was installed
+     */
+    public ItemStack remove(Upgrade upgrade) {
+        int ordinal = upgrade.getOrdinal();
+        if (ordinal >= counts.length || counts[ordinal] == 0)
+            return ItemStack.EMPTY;
+        UpgradeInfo info = infos[ordinal];
+        if (--counts[ordinal] == 0) {
+            setInfo(ordinal, null);
+        }
+        ItemStack stack = info.upgradeItem.copy();
+        stack.setCount(1);
+        return stack;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(infos, null);
+        byStack.clear();
+    }
+
+    /**
+     * the installed upgrades in ordinal order
+     */
+    public List<UpgradeInfo> getInstalled() {
+        List<UpgradeInfo> installed = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                installed.add(infos[ordinal]);
+            }
+        }
+        return installed;
+    }
+
+    /**
+     * a live list of the installed upgrades for code written against a plain list, adding and removing goes through {@link #add(UpgradeInfo)} and {@link #remove(Upgrade)}
+     */
+    public List<UpgradeInfo> asList() {
+        return new AbstractList<UpgradeInfo>() {
+            @Override
+            public UpgradeInfo get(int index) {
+                int left = index;
+                for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                    if (counts[ordinal] > 0 && left-- == 0)
+                        return infos[ordinal];
+                }
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int count : counts) {
+                    if (count > 0)
+                        size++;
+                }
+                return size;
+            }
+
+            @Override
+            public void add(int index, UpgradeInfo info) {
+                if (!UpgradeStorage.this.add(info))
+                    throw new IllegalStateException("Upgrade " + info.upgrade.getKey() + " is already installed " + info.upgrade.getMax() + " times");
+            }
+
+            @Override
+            public UpgradeInfo remove(int index) {
+                UpgradeInfo info = get(index);
+                UpgradeStorage.this.remove(info.upgrade);
+                return info;
+            }
+        };
+    }
+
+    public Map<Upgrade, Integer> toMap() {
+        Map<Upgrade, Integer> map = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                map.put(Upgrade.byOrdinal(ordinal), counts[ordinal]);
+            }
+        }
+        return map;
+    }
+
+    public void writeToNBT(NBTTagCompound nbtTags) {
+        Upgrade.saveMap(toMap(), nbtTags);
+        NBTTagCompound items = new NBTTagCompound();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                items.setTag(Upgrade.byOrdinal(ordinal).getKey(), infos[ordinal].upgradeItem.writeToNBT(new NBTTagCompound()));
+            }
+        }
+        nbtTags.setTag("upgradeItems", items);
+    }
+
+    public void readFromNBT(NBTTagCompound nbtTags) {
+        clear();
+        NBTTagCompound items = nbtTags.getCompoundTag("upgradeItems");
+        for (Map.Entry<Upgrade, Integer> entry : Upgrade.buildMap(nbtTags).entrySet()) {
+            Upgrade upgrade = entry.getKey();
+            int ordinal = upgrade.getOrdinal();
+            ensureCapacity(ordinal);
+            ItemStack stack = items.hasKey(upgrade.getKey(), NBT.TAG_COMPOUND) ? new ItemStack(items.getCompoundTag(upgrade.getKey())) : ItemStack.EMPTY;
+            counts[ordinal] = Math.min(entry.getValue(), upgrade.getMax());
+            if (counts[ordinal] > 0) {
+                setInfo(ordinal, new UpgradeInfo(upgrade, stack));
+            }
+        }
+    }
+
+    private void setInfo(int ordinal, UpgradeInfo info) {
+        UpgradeInfo old = infos[ordinal];
+        if (old != null) {
+            byStack.remove(ItemKey.of(old.upgradeItem));
+        }
+        infos[ordinal] = info;
+        if (info != null) {
+            ItemKey key = ItemKey.of(info.upgradeItem);
+            if (key != null) {
+                byStack.put(key, info);
+            }
+        }
+    }
+
+    private void ensureCapacity(int ordinal) {
+        if (ordinal >= counts.length) {
+            counts = Arrays.copyOf(counts, Upgrade.count());
+            infos = Arrays.copyOf(infos, Upgrade.count());
+        }
+    }
+}
@@ -9,6 +9,9 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.util.INBTSerializable;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 
+/**
+ * A single block and its position, for saving many blocks at once use {@link me.creepinson.creepinoutils.api.util.world.RegionSnapshot}.
+ */
 public class BlockContainer implements INBTSerializable<NBTTagCompound> {
     private IBlockState state;
     private BlockPos pos;
@@ -1,8 +1,10 @@
 package me.creepinson.creepinoutils.api.util;
 
+import java.util.ArrayDeque;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.draco18s.hardlib.util.CapabilityUtils;
 import me.creepinson.creepinoutils.api.util.math.Vector3;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockAir;
@@ -41,23 +43,46 @@ public class BlockUtils {
 
     public static void getTilesWithCapabilityRecursive(Set<Vector3> done, World world, Vector3 start, EnumFacing from,
             Capability... search) {
-        for (EnumFacing side : EnumFacing.values()) {
-            if (side == from)
-                continue;
-            if (world.getTileEntity(start.toBlockPos()) != null
-                    && !world.getTileEntity(start.toBlockPos()).isInvalid()) {
-                TileEntity tile = world.getTileEntity(start.toBlockPos());
-                for (Capability c : search) {
-                    if (tile.getCapability(c, from) != null) {
-                        done.add(start);
-                    }
+        TileEntity tile = world.getTileEntity(start.toBlockPos());
+        if (tile == null || tile.isInvalid() || !hasAnyCapability(tile, from, search))
+            return;
+        done.add(start);
+        // walk the network breadth first, neighbours are asked through the tile they were reached from
+        // so tiles with a NeighborCapabilityCache answer from it instead of the world
+        ArrayDeque<TileEntity> queue = new ArrayDeque<>();
+        queue.add(tile);
+        while (!queue.isEmpty()) {
+            TileEntity current = queue.poll();
+            Vector3 position = new Vector3(current.getPos());
+            for (EnumFacing side : EnumFacing.VALUES) {
+                Vector3 next = position.offset(side);
+                if (done.contains(next) || !hasAnyNeighborCapability(current, side, search))
+                    continue;
+                done.add(next);
+                TileEntity neighbor = world.getTileEntity(next.toBlockPos());
+                if (neighbor != null) {
+                    queue.add(neighbor);
                 }
+            }
+        }
+    }
 
-                if (done.contains(start.offset(side))) {
-                    getTilesWithCapabilityRecursive(done, world, start.offset(side), side.getOpposite(), search);
-                }
+    private static boolean hasAnyCapability(TileEntity tile, EnumFacing facing, Capability... search) {
+        for (Capability c : search) {
+            if (tile.getCapability(c, facing) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAnyNeighborCapability(TileEntity tile, EnumFacing side, Capability... search) {
+        for (Capability<?> c : search) {
+            if (CapabilityUtils.getNeighborCapability(tile, c, side) != null) {
+                return true;
             }
         }
+        return false;
     }
 
     public static Set<Vector3> getBlocks(World world, Vector3 startingPosition, Class... search) {
@@ -1,7 +1,9 @@
 package me.creepinson.creepinoutils.api.util;
 
 import me.creepinson.creepinoutils.api.util.math.Vector3;
-import net.minecraft.block.BlockAir;
+import me.creepinson.creepinoutils.api.util.world.BlockEditBatch;
+import me.creepinson.creepinoutils.api.util.world.GroundFinder;
+import me.creepinson.creepinoutils.api.util.world.RegionScanner;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -234,7 +236,9 @@ public class CreepinoUtils {
      * @param pos    The starting position
      * @param radius The radius to expand from
      * @return A list that contains each block POSITION within the radius
+     * @deprecated allocates (2 * radius + 1)^3 positions, walk the region with a {@link RegionScanner} instead
      */
+    @Deprecated
     public static List<BlockPos> getNearbyBlocks(BlockPos pos, int radius) {
         List<BlockPos> scanResult = new ArrayList<BlockPos>();
         for (int x = pos.getX() - radius; x <= pos.getX() + radius; x++) {
@@ -252,41 +256,61 @@ public class CreepinoUtils {
      * @param radius The radius to expand from
      * @return A list that contains each block STATE within the radius.
      * Compared to the other getNearbyBlocks method, this one returns a list of blockstates to make it easier to get each block's information.
+     * Blocks in chunks that are not loaded are left out instead of loading the chunk.
+     * @deprecated still builds a list of every state, visit them with a {@link RegionScanner} instead
      */
+    @Deprecated
     public static List<IBlockState> getNearbyBlocks(World world, BlockPos pos, int radius) {
         List<IBlockState> scanResult = new ArrayList<IBlockState>();
-        List<BlockPos> scans = getNearbyBlocks(pos, radius);
-        for (BlockPos scanPos : scans) {
-            scanResult.add(world.getBlockState(scanPos));
-        }
+        new RegionScanner(world).setIncludeAir(true).scan(pos, radius, (scanPos, state) -> scanResult.add(state));
         return scanResult;
     }
 
+    /**
+     * Most falling blocks a single {@link #createBlockExplosion(World, List)} spawns.
+     */
+    public static int maxFallingBlocks = 256;
+
     public static void createBlockExplosion(World world, List<BlockPos> blocksToDestroy) {
-        for (BlockPos block : blocksToDestroy) {
-
-            float x = (float) -0.5 + (float) (Math.random() * ((0.5 - -0.5) + 1));
-            float y = (float) -1 + (float) (Math.random() * ((1 - -1) + 1));
-            float z = (float) -0.5 + (float) (Math.random() * ((0.5 - -0.5) + 1));
-            EntityFallingBlock fallingBlock = new EntityFallingBlock(world, block.getX(), block.getY(), block.getZ(),
-                    world.getBlockState(block));
-            fallingBlock.setDropItemsWhenDead(false);
-            fallingBlock.fallTime = 4;
-            world.spawnEntity(fallingBlock);
-            fallingBlock.setVelocity(x, y, z);
-            world.setBlockState(block, Blocks.AIR.getDefaultState());
+        createBlockExplosion(world, blocksToDestroy, maxFallingBlocks);
+    }
+
+    /**
+     * Removes every block at once through a {@link BlockEditBatch} and throws some of them as falling blocks.
+     *
+     * @param maxEntities how many falling blocks may be spawned, spread evenly over the blocks, the others just vanish
+     */
+    public static void createBlockExplosion(World world, List<BlockPos> blocksToDestroy, int maxEntities) {
+        BlockEditBatch batch = new BlockEditBatch(world);
+        int stride = maxEntities <= 0 ? Integer.MAX_VALUE : Math.max(1, (blocksToDestroy.size() + maxEntities - 1) / maxEntities);
+        int spawned = 0;
+        for (int i = 0; i < blocksToDestroy.size(); i++) {
+            BlockPos block = blocksToDestroy.get(i);
+            IBlockState state = world.getBlockState(block);
+            if (state.getBlock() == Blocks.AIR)
+                continue;
+            if (i % stride == 0 && spawned < maxEntities) {
+                float x = (float) -0.5 + (float) (Math.random() * ((0.5 - -0.5) + 1));
+                float y = (float) -1 + (float) (Math.random() * ((1 - -1) + 1));
+                float z = (float) -0.5 + (float) (Math.random() * ((0.5 - -0.5) + 1));
+                EntityFallingBlock fallingBlock = new EntityFallingBlock(world, block.getX(), block.getY(), block.getZ(), state);
+                fallingBlock.setDropItemsWhenDead(false);
+                fallingBlock.fallTime = 4;
+                world.spawnEntity(fallingBlock);
+                fallingBlock.setVelocity(x, y, z);
+                spawned++;
+            }
+            batch.setAir(block);
         }
+        batch.apply();
     }
 
+    /**
+     * @return the highest non air block of the column of pos, or the bottom of the world if the column is empty
+     * @see GroundFinder
+     */
     public static BlockPos getGround(World world, BlockPos pos) {
-        BlockPos blockpos;
-
-        for (blockpos = new BlockPos(pos.getX(), world.getSeaLevel(),
-                pos.getZ()); !(world.getBlockState(blockpos.up()).getBlock() instanceof BlockAir); blockpos = blockpos
-                .up()) {
-            ;
-        }
-        return blockpos;
+        return new BlockPos(pos.getX(), Math.max(0, GroundFinder.getGroundY(world, pos.getX(), pos.getZ())), pos.getZ());
     }
 
     public static Map<Vector3, EnumFacing> searchForBlockOnSides(TileEntity tile, EnumFacing[] values, Class... searchFor) {
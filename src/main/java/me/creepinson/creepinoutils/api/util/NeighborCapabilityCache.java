@@ -0,0 +1,153 @@
+package me.creepinson.creepinoutils.api.util;
+
+import com.draco18s.hardlib.util.CapabilityUtils;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the capability handlers of the six neighbours of a tile so repeated queries
+ * skip {@link World#getTileEntity(BlockPos)} and the neighbour's hasCapability/getCapability.
+ * Every capability gets a six entry array indexed by {@link EnumFacing#getIndex()} holding weak references,
+ * so a cached neighbour that goes away is never kept alive.
+ * <br>
+ * Call {@link #invalidate(BlockPos)} when a neighbour changes and {@link #invalidateAll()} when the owner is invalidated
+ * or its chunk unloads. Neighbours in other chunks are checked again whenever any chunk unloads.
+ */
+@Mod.EventBusSubscriber
+public class NeighborCapabilityCache {
+    private static volatile int unloadGeneration;
+
+    private final TileEntity owner;
+    private final Map<Capability<?>, Entry[]> entries = new IdentityHashMap<>();
+    private int generation = unloadGeneration;
+    private long hits;
+    private long misses;
+
+    public NeighborCapabilityCache(TileEntity owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Implemented by tiles that keep a cache, lets {@link CapabilityUtils#getNeighborCapability(TileEntity, Capability, EnumFacing)} use it.
+     */
+    public interface IProvider {
+        NeighborCapabilityCache getNeighborCache();
+    }
+
+    /**
+     * @param side the side of the owner the neighbour is on, the neighbour is asked for the opposite face
+     * @return the handler of the neighbour or null if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getCapability(Capability<T> capability, EnumFacing side) {
+        World world = owner.getWorld();
+        if (world == null)
+            return null;
+        if (generation != unloadGeneration) {
+            generation = unloadGeneration;
+            dropUnloaded(world);
+        }
+        Entry[] sides = entries.get(capability);
+        if (sides == null) {
+            sides = new Entry[EnumFacing.VALUES.length];
+            entries.put(capability, sides);
+        }
+        Entry entry = sides[side.getIndex()];
+        if (entry != null && entry.isValid()) {
+            hits++;
+            return entry.handler == null ? null : (T) entry.handler.get();
+        }
+        misses++;
+        sides[side.getIndex()] = null;
+        BlockPos neighbor = owner.getPos().offset(side);
+        if (!world.isBlockLoaded(neighbor))
+            return null;
+        TileEntity tile = world.getTileEntity(neighbor);
+        T handler = tile == null || tile.isInvalid() ? null : CapabilityUtils.getCapability(tile, capability, side.getOpposite());
+        sides[side.getIndex()] = new Entry(tile, handler);
+        return handler;
+    }
+
+    /**
+     * forget what is cached for the neighbour at the given position, does nothing if it is not adjacent to the owner
+     */
+    public void invalidate(BlockPos neighbor) {
+        EnumFacing side = BlockUtils.getNeighborDirection(owner.getPos(), neighbor);
+        if (owner.getPos().offset(side).equals(neighbor)) {
+            invalidate(side);
+        }
+    }
+
+    public void invalidate(EnumFacing side) {
+        for (Entry[] sides : entries.values()) {
+            sides[side.getIndex()] = null;
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void dropUnloaded(World world) {
+        for (EnumFacing side : EnumFacing.VALUES) {
+            if (!world.isBlockLoaded(owner.getPos().offset(side))) {
+                invalidate(side);
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        unloadGeneration++;
+    }
+
+    private static class Entry {
+        /**
+         * null if there was no tile, an empty position stays cached until a neighbour change says otherwise
+         */
+        private final WeakReference<TileEntity> tile;
+        private final WeakReference<Object> handler;
+
+        private Entry(TileEntity tile, Object handler) {
+            this.tile = tile == null ? null : new WeakReference<>(tile);
+            this.handler = handler == null ? null : new WeakReference<>(handler);
+        }
+
+        private boolean isValid() {
+            if (tile != null) {
+                TileEntity t = tile.get();
+                if (t == null || t.isInvalid())
+                    return false;
+            }
+            return handler == null || handler.get() != null;
+        }
+    }
+}
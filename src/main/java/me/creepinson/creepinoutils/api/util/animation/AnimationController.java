@@ -1,10 +1,8 @@
 package me.creepinson.creepinoutils.api.util.animation;
 
-import me.creepinson.creepinoutils.api.util.math.Rotation;
 import me.creepinson.creepinoutils.api.util.math.Transformation;
 import me.creepinson.creepinoutils.util.Pair;
 import me.creepinson.creepinoutils.util.PairList;
-import net.minecraft.util.EnumFacing.Axis;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -187,21 +185,7 @@ public class AnimationController {
         }
 
         public void transform(Transformation transformation) {
-            if (transformation.rotX != 0) {
-                Rotation rotation = transformation.getRotation(Axis.X);
-                for (int i = 0; i < Math.abs(transformation.rotX); i++)
-                    state.transform(rotation);
-            }
-            if (transformation.rotY != 0) {
-                Rotation rotation = transformation.getRotation(Axis.Y);
-                for (int i = 0; i < Math.abs(transformation.rotY); i++)
-                    state.transform(rotation);
-            }
-            if (transformation.rotZ != 0) {
-                Rotation rotation = transformation.getRotation(Axis.Z);
-                for (int i = 0; i < Math.abs(transformation.rotZ); i++)
-                    state.transform(rotation);
-            }
+            state.transform(transformation.getOrientation());
         }
 
     }
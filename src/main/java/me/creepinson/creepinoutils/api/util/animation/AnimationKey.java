@@ -1,5 +1,6 @@
 package me.creepinson.creepinoutils.api.util.animation;
 
+import me.creepinson.creepinoutils.api.util.math.Orientation;
 import me.creepinson.creepinoutils.api.util.math.Rotation;
 import me.creepinson.creepinoutils.util.Pair;
 import net.minecraft.util.EnumFacing.Axis;
@@ -72,8 +73,8 @@ public abstract class AnimationKey {
         }
 
         @Override
-        public Pair<AnimationKey, Double> transform(Rotation rotation, double value) {
-            return new Pair<>(getRotation(rotation.getRotatedComponent(axis)), (rotation.getRotatedComponentPositive(axis) ? value : -value));
+        public Pair<AnimationKey, Double> transform(int orientation, double value) {
+            return new Pair<>(getRotation(Orientation.transform(orientation, axis)), (Orientation.isPositive(orientation, axis) ? value : -value));
         }
 
     }
@@ -93,8 +94,8 @@ public abstract class AnimationKey {
         }
 
         @Override
-        public Pair<AnimationKey, Double> transform(Rotation rotation, double value) {
-            return new Pair<>(getOffset(rotation.getRotatedComponent(axis)), (rotation.getRotatedComponentPositive(axis) ? value : -value));
+        public Pair<AnimationKey, Double> transform(int orientation, double value) {
+            return new Pair<>(getOffset(Orientation.transform(orientation, axis)), (Orientation.isPositive(orientation, axis) ? value : -value));
         }
 
     }
@@ -114,8 +115,8 @@ public abstract class AnimationKey {
         }
 
         @Override
-        public Pair<AnimationKey, Double> transform(Rotation rotation, double value) {
-            return new Pair<>(getOffset(rotation.getRotatedComponent(axis)), (rotation.getRotatedComponentPositive(axis) ? value : -value));
+        public Pair<AnimationKey, Double> transform(int orientation, double value) {
+            return new Pair<>(getOffset(Orientation.transform(orientation, axis)), (Orientation.isPositive(orientation, axis) ? value : -value));
         }
 
     }
@@ -135,7 +136,15 @@ public abstract class AnimationKey {
 
     public abstract boolean isAligned(double value);
 
-    public abstract Pair<AnimationKey, Double> transform(Rotation rotation, double value);
+    public Pair<AnimationKey, Double> transform(Rotation rotation, double value) {
+        return transform(Orientation.of(rotation), value);
+    }
+
+    /**
+     * @param orientation one of the {@link Orientation}s
+     * @return the key and value this key turns into
+     */
+    public abstract Pair<AnimationKey, Double> transform(int orientation, double value);
 
     @Override
     public String toString() {
@@ -1,5 +1,6 @@
 package me.creepinson.creepinoutils.api.util.animation;
 
+import me.creepinson.creepinoutils.api.util.math.Orientation;
 import me.creepinson.creepinoutils.api.util.math.Rotation;
 import me.creepinson.creepinoutils.api.util.math.Vector3;
 import me.creepinson.creepinoutils.util.Pair;
@@ -79,9 +80,18 @@ public class AnimationState {
     }
 
     public void transform(Rotation rotation) {
+        transform(Orientation.of(rotation));
+    }
+
+    /**
+     * turn the state by any chain of rotations at once, see {@link Orientation#of(int, int, int)}
+     */
+    public void transform(int orientation) {
+        if (orientation == Orientation.IDENTITY)
+            return;
         PairList<AnimationKey, Double> newPairs = new PairList<>();
         for (Pair<AnimationKey, Double> pair : values) {
-            Pair<AnimationKey, Double> result = pair.key.transform(rotation, pair.value);
+            Pair<AnimationKey, Double> result = pair.key.transform(orientation, pair.value);
             if (result != null)
                 newPairs.add(result);
             else
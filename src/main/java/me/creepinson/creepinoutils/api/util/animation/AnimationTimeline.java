@@ -1,5 +1,6 @@
 package me.creepinson.creepinoutils.api.util.animation;
 
+import me.creepinson.creepinoutils.api.util.math.Orientation;
 import me.creepinson.creepinoutils.api.util.math.Rotation;
 import me.creepinson.creepinoutils.util.Pair;
 import me.creepinson.creepinoutils.util.PairList;
@@ -176,9 +177,15 @@ public class AnimationTimeline {
     }
 
     public void transform(Rotation rotation) {
+        transform(Orientation.of(rotation));
+    }
+
+    public void transform(int orientation) {
+        if (orientation == Orientation.IDENTITY)
+            return;
         PairList<AnimationKey, ValueTimeline> newPairs = new PairList<>();
         for (Pair<AnimationKey, ValueTimeline> pair : values) {
-            Pair<AnimationKey, Double> result = pair.key.transform(rotation, 1);
+            Pair<AnimationKey, Double> result = pair.key.transform(orientation, 1);
             if (result != null) {
                 if (result.value < 0)
                     pair.value.flip();
@@ -0,0 +1,235 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * Retained set of single block cuboids drawn as quads, for overlays that highlight a lot of blocks every frame.
+ * Faces shared by two cuboids of the batch are culled and the merged geometry is cached until the set changes,
+ * so rendering an unchanged batch only replays the cached vertices.
+ * <br>
+ * Sides use the {@link GeometryMasks.Quad} bits just like {@link GeometryTessellator#drawCuboid(BlockPos, int, int)}.
+ */
+public class CuboidBatch {
+    private static final int FACES = 6;
+    private static final int[] FACE_BITS = {GeometryMasks.Quad.DOWN, GeometryMasks.Quad.UP, GeometryMasks.Quad.NORTH, GeometryMasks.Quad.SOUTH, GeometryMasks.Quad.WEST, GeometryMasks.Quad.EAST};
+    private static final int[] OPPOSITE_BITS = {GeometryMasks.Quad.UP, GeometryMasks.Quad.DOWN, GeometryMasks.Quad.SOUTH, GeometryMasks.Quad.NORTH, GeometryMasks.Quad.EAST, GeometryMasks.Quad.WEST};
+    private static final int[][] OFFSETS = {{0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {-1, 0, 0}, {1, 0, 0}};
+
+    private final Long2ObjectMap<Cuboid> cuboids = new Long2ObjectOpenHashMap<>();
+    private double delta;
+    private boolean dirty;
+
+    private int originX, originY, originZ;
+    private float[] positions = new float[0];
+    private int[] colors = new int[0];
+    private int vertexCount;
+    private int culledFaces;
+    private long lastBuildNanos;
+
+    public void add(BlockPos pos, int sides, int argb) {
+        Cuboid cuboid = cuboids.get(pos.toLong());
+        if (cuboid != null && cuboid.sides == sides && cuboid.argb == argb)
+            return;
+        cuboids.put(pos.toLong(), new Cuboid(pos.getX(), pos.getY(), pos.getZ(), sides, argb));
+        dirty = true;
+    }
+
+    public void addAll(Iterable<BlockPos> positions, int sides, int argb) {
+        for (BlockPos pos : positions) {
+            add(pos, sides, argb);
+        }
+    }
+
+    public boolean remove(BlockPos pos) {
+        if (cuboids.remove(pos.toLong()) == null)
+            return false;
+        dirty = true;
+        return true;
+    }
+
+    public boolean contains(BlockPos pos) {
+        return cuboids.containsKey(pos.toLong());
+    }
+
+    public void clear() {
+        if (!cuboids.isEmpty()) {
+            cuboids.clear();
+            dirty = true;
+        }
+    }
+
+    /**
+     * grow every cuboid by this much on every side, same as {@link GeometryTessellator#setDelta(double)}
+     */
+    public void setDelta(double delta) {
+        if (this.delta != delta) {
+            this.delta = delta;
+            dirty = true;
+        }
+    }
+
+    public int size() {
+        return cuboids.size();
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * rebuild the cached geometry, rendering does this by itself when the set changed
+     */
+    public void build() {
+        long start = System.nanoTime();
+        vertexCount = 0;
+        culledFaces = 0;
+        boolean first = true;
+        for (Cuboid cuboid : cuboids.values()) {
+            if (first) {
+                // vertices are stored relative to the first cuboid so floats keep their precision far from 0,0
+                originX = cuboid.x;
+                originY = cuboid.y;
+                originZ = cuboid.z;
+                first = false;
+            }
+            for (int face = 0; face < FACES; face++) {
+                if ((cuboid.sides & FACE_BITS[face]) == 0)
+                    continue;
+                int[] offset = OFFSETS[face];
+                Cuboid neighbour = cuboids.get(toLong(cuboid.x + offset[0], cuboid.y + offset[1], cuboid.z + offset[2]));
+                if (neighbour != null && (neighbour.sides & OPPOSITE_BITS[face]) != 0) {
+                    culledFaces++;
+                    continue;
+                }
+                addFace(cuboid, face);
+            }
+        }
+        dirty = false;
+        lastBuildNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * same layout as {@link BlockPos#toLong()} without creating the BlockPos
+     */
+    private static long toLong(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | ((long) z & 0x3FFFFFFL);
+    }
+
+    private void addFace(Cuboid cuboid, int face) {
+        final float x0 = (float) (cuboid.x - originX - delta);
+        final float y0 = (float) (cuboid.y - originY - delta);
+        final float z0 = (float) (cuboid.z - originZ - delta);
+        final float x1 = (float) (cuboid.x - originX + 1 + delta);
+        final float y1 = (float) (cuboid.y - originY + 1 + delta);
+        final float z1 = (float) (cuboid.z - originZ + 1 + delta);
+        final int argb = cuboid.argb;
+
+        // same winding as GeometryTessellator#drawQuads
+        switch (face) {
+            case 0:
+                addVertex(x1, y0, z0, argb);
+                addVertex(x1, y0, z1, argb);
+                addVertex(x0, y0, z1, argb);
+                addVertex(x0, y0, z0, argb);
+                break;
+            case 1:
+                addVertex(x1, y1, z0, argb);
+                addVertex(x0, y1, z0, argb);
+                addVertex(x0, y1, z1, argb);
+                addVertex(x1, y1, z1, argb);
+                break;
+            case 2:
+                addVertex(x1, y0, z0, argb);
+                addVertex(x0, y0, z0, argb);
+                addVertex(x0, y1, z0, argb);
+                addVertex(x1, y1, z0, argb);
+                break;
+            case 3:
+                addVertex(x0, y0, z1, argb);
+                addVertex(x1, y0, z1, argb);
+                addVertex(x1, y1, z1, argb);
+                addVertex(x0, y1, z1, argb);
+                break;
+            case 4:
+                addVertex(x0, y0, z0, argb);
+                addVertex(x0, y0, z1, argb);
+                addVertex(x0, y1, z1, argb);
+                addVertex(x0, y1, z0, argb);
+                break;
+            default:
+                addVertex(x1, y0, z1, argb);
+                addVertex(x1, y0, z0, argb);
+                addVertex(x1, y1, z0, argb);
+                addVertex(x1, y1, z1, argb);
+                break;
+        }
+    }
+
+    private void addVertex(float x, float y, float z, int argb) {
+        if (vertexCount == colors.length) {
+            int capacity = Math.max(64, colors.length * 2);
+            positions = Arrays.copyOf(positions, capacity * 3);
+            colors = Arrays.copyOf(colors, capacity);
+        }
+        positions[vertexCount * 3] = x;
+        positions[vertexCount * 3 + 1] = y;
+        positions[vertexCount * 3 + 2] = z;
+        colors[vertexCount] = argb;
+        vertexCount++;
+    }
+
+    /**
+     * the buffer has to be drawing {@link org.lwjgl.opengl.GL11#GL_QUADS} with a position color format
+     */
+    public void render(BufferBuilder buffer) {
+        render(IVertexSink.of(buffer));
+    }
+
+    public void render(IVertexSink sink) {
+        if (dirty) {
+            build();
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            int argb = colors[i];
+            sink.vertex(originX + positions[i * 3], originY + positions[i * 3 + 1], originZ + positions[i * 3 + 2],
+                    (argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF, (argb >>> 24) & 0xFF);
+        }
+    }
+
+    /**
+     * vertices of the last build
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * faces skipped in the last build because a neighbouring cuboid hides them
+     */
+    public int getCulledFaces() {
+        return culledFaces;
+    }
+
+    public long getLastBuildNanos() {
+        return lastBuildNanos;
+    }
+
+    private static class Cuboid {
+        private final int x, y, z;
+        private final int sides;
+        private final int argb;
+
+        private Cuboid(int x, int y, int z, int sides, int argb) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.sides = sides;
+            this.argb = argb;
+        }
+    }
+}
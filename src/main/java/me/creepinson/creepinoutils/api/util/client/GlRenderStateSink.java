@@ -0,0 +1,66 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * the {@link IRenderStateSink} that actually talks to open gl
+ */
+@SideOnly(Side.CLIENT)
+public class GlRenderStateSink implements IRenderStateSink {
+    public static final GlRenderStateSink INSTANCE = new GlRenderStateSink();
+
+    @Override
+    public void pushMatrix() {
+        GlStateManager.pushMatrix();
+    }
+
+    @Override
+    public void popMatrix() {
+        GlStateManager.popMatrix();
+    }
+
+    @Override
+    public void translate(float x, float y, float z) {
+        GlStateManager.translate(x, y, z);
+    }
+
+    @Override
+    public void color(float r, float g, float b, float a) {
+        GlStateManager.color(r, g, b, a);
+    }
+
+    @Override
+    public void depthMask(boolean flag) {
+        GlStateManager.depthMask(flag);
+    }
+
+    @Override
+    public void enableLighting() {
+        GlStateManager.enableLighting();
+    }
+
+    @Override
+    public void enableRescaleNormal() {
+        GlStateManager.enableRescaleNormal();
+    }
+
+    @Override
+    public void disableBlurMipmap() {
+        getBlockTexture().setBlurMipmap(false, false);
+    }
+
+    @Override
+    public void restoreLastBlurMipmap() {
+        getBlockTexture().restoreLastBlurMipmap();
+    }
+
+    private static AbstractTexture getBlockTexture() {
+        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+        return (AbstractTexture) Minecraft.getMinecraft().getTextureManager().getTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+    }
+}
@@ -22,6 +22,9 @@ import net.minecraft.util.BlockRenderLayer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.client.ForgeHooksClient;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.registries.GameData;
@@ -31,42 +34,90 @@ import java.util.Map;
 import java.util.Set;
 
 @SideOnly(Side.CLIENT)
+@Mod.EventBusSubscriber(Side.CLIENT)
 public class IItemRendererHandler {
 
     private static Map<Item, IItemRenderer> registry = new HashMap<>();
+    /**
+     * compact copy of the registry used for lookups once it is frozen, null before that
+     */
+    private static ItemRendererTable table;
     public static RenderItemObj renderItem;
 
+    /**
+     * holder data, transform types and the blur/mipmap nesting of the current frame
+     */
+    public static final ItemRenderState state = new ItemRenderState();
+    /**
+     * where the blur/mipmap and batch setup changes of the IItemRenderer pipeline are sent, swap it with a {@link RecordingRenderStateSink} to record them.
+     * transforms and the renderers themselves still talk to GlStateManager directly
+     */
+    public static IRenderStateSink stateSink = GlRenderStateSink.INSTANCE;
+
     /**
      * mipmapping lastBlur before starting this rendering process
+     *
+     * @deprecated never written, the block atlas restores its own blur/mipmap through {@link #restoreLastBlurMipmap()}
      */
+    @Deprecated
     public static boolean lastBlur;
     /**
      * mipmapping lastMipMap before starting this rendering process
+     *
+     * @deprecated never written, the block atlas restores its own blur/mipmap through {@link #restoreLastBlurMipmap()}
      */
+    @Deprecated
     public static boolean lastMipmap;
 
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastX}, use {@link #state}
+     */
+    @Deprecated
     public static double lastX;
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastY}, use {@link #state}
+     */
+    @Deprecated
     public static double lastY;
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastZ}, use {@link #state}
+     */
+    @Deprecated
     public static double lastZ;
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastYaw}, use {@link #state}
+     */
+    @Deprecated
     public static double lastYaw;
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastPitch}, use {@link #state}
+     */
+    @Deprecated
     public static double lastPitch;
+    /**
+     * @deprecated read-only mirror of {@link ItemRenderState#lastYawHead}, use {@link #state}
+     */
+    @Deprecated
     public static double lastYawHead;
     /**
-     * the last known entity holder for rendering your IItemRenderer may be null
+     * @deprecated read-only mirror of {@link ItemRenderState#lastEntity}, use {@link #state}
      */
+    @Deprecated
     public static Entity lastEntity;
-
     /**
-     * this field gets updated when ForgeHooksClient#handleCameraTransforms() use with caution as this can change even during an iitemrenderer use lastTransformType or cachedTrasnformType
+     * @deprecated read-only mirror of {@link ItemRenderState#currentTransformType}, use {@link #state}
      */
+    @Deprecated
     public static TransformType currentTransformType;
     /**
-     * this is always the first transform type at the start of the recursive loop of camera transitions
+     * @deprecated read-only mirror of {@link ItemRenderState#cachedTransformType}, use {@link #state}
      */
+    @Deprecated
     public static TransformType cachedTransformType;
     /**
-     * gets set to current transform type after {@link IItemRenderer#restoreLastOpenGl()} is called.
+     * @deprecated read-only mirror of {@link ItemRenderState#lastTransformType}, use {@link #state}
      */
+    @Deprecated
     public static TransformType lastTransformType;
 
     /**
@@ -94,7 +145,8 @@ public class IItemRendererHandler {
     public static final BlockPos ORIGIN = new BlockPos(0, 64, 0);
 
     public static IItemRenderer get(Item item) {
-        return registry.get(item);
+        ItemRendererTable frozen = table;
+        return frozen != null ? frozen.get(item) : registry.get(item);
     }
 
     public static IItemRenderer get(ItemStack itemstack) {
@@ -110,20 +162,39 @@ public class IItemRendererHandler {
      */
     public static void remove(Item item) {
         registry.remove(item);
+        if (table != null) {
+            freeze();
+        }
     }
 
     public static boolean hasKey(Item item) {
-        return registry.containsKey(item);
+        ItemRendererTable frozen = table;
+        return frozen != null ? frozen.contains(item) : registry.containsKey(item);
     }
 
     public static boolean hasKey(ItemStack stack) {
-        return stack.isEmpty() ? false : registry.containsKey(stack.getItem());
+        return !stack.isEmpty() && hasKey(stack.getItem());
     }
 
     public static void register(Item item, IItemRenderer renderer) {
         if (item == Items.AIR)
             throw new IllegalArgumentException("Item/Block cannot be AIR");
         registry.put(item, renderer);
+        if (table != null) {
+            freeze();
+        }
+    }
+
+    /**
+     * compact the registry into the table used for every lookup, this happens on the first render tick after loading.
+     * registering afterwards still works but rebuilds the whole table
+     */
+    public static void freeze() {
+        table = new ItemRendererTable(registry);
+    }
+
+    public static boolean isFrozen() {
+        return table != null;
     }
 
     public static void register(Block block, IItemRenderer renderer) {
@@ -138,20 +209,21 @@ public class IItemRendererHandler {
      * gets ran by ASM when forge handle camera transforms gets called
      */
     public static void handleCameraTransforms(TransformType type, boolean leftHand) {
-        lastTransformType = currentTransformType != null ? currentTransformType : type;
-        currentTransformType = type;
+        state.lastTransformType = state.currentTransformType != null ? state.currentTransformType : type;
+        state.currentTransformType = type;
         leftHandHackery = leftHand;
         if (!isRunning) {
-            cachedTransformType = type;
+            state.cachedTransformType = type;
             cachedLeftHandHackery = leftHand;
         }
+        mirrorState();
     }
 
     /**
      * use this to restore last known Transform type that it started out with
      */
     public static void restoreCachedTransforms() {
-        handleCameraTransforms(cachedTransformType, cachedLeftHandHackery);
+        handleCameraTransforms(state.cachedTransformType, cachedLeftHandHackery);
     }
 
     /**
@@ -254,26 +326,45 @@ public class IItemRendererHandler {
      * calling this directly can screw up other IItemRenderers use with caution
      */
     public static void updateLastPosForcibly(Entity entityIn) {
-        lastX = entityIn.posX;
-        lastY = entityIn.posY;
-        lastZ = entityIn.posZ;
-        lastYaw = entityIn.rotationYaw;
-        lastPitch = entityIn.rotationPitch;
-        lastYawHead = entityIn.getRotationYawHead();
-        lastEntity = entityIn;
+        state.lastX = entityIn.posX;
+        state.lastY = entityIn.posY;
+        state.lastZ = entityIn.posZ;
+        state.lastYaw = entityIn.rotationYaw;
+        state.lastPitch = entityIn.rotationPitch;
+        state.lastYawHead = entityIn.getRotationYawHead();
+        state.lastEntity = entityIn;
+        mirrorState();
     }
 
     /**
      * calling this directly can screw up other IItemRenderers use with caution
      */
     public static void updateLastPosForcibly(BlockPos origin) {
-        lastX = origin.getX();
-        lastY = origin.getY();
-        lastZ = origin.getZ();
-        lastYaw = 0.0F;
-        lastPitch = 0.0F;
-        lastYawHead = 0.0F;
-        lastEntity = null;
+        state.lastX = origin.getX();
+        state.lastY = origin.getY();
+        state.lastZ = origin.getZ();
+        state.lastYaw = 0.0F;
+        state.lastPitch = 0.0F;
+        state.lastYawHead = 0.0F;
+        state.lastEntity = null;
+        mirrorState();
+    }
+
+    /**
+     * copy {@link #state} into the deprecated static fields older IItemRenderers read
+     */
+    @SuppressWarnings("deprecation")
+    static void mirrorState() {
+        lastX = state.lastX;
+        lastY = state.lastY;
+        lastZ = state.lastZ;
+        lastYaw = state.lastYaw;
+        lastPitch = state.lastPitch;
+        lastYawHead = state.lastYawHead;
+        lastEntity = state.lastEntity;
+        currentTransformType = state.currentTransformType;
+        cachedTransformType = state.cachedTransformType;
+        lastTransformType = state.lastTransformType;
     }
 
     /**
@@ -290,15 +381,25 @@ public class IItemRendererHandler {
         }
     }
 
+    /**
+     * disables blur and mipmaps once, nested calls in a recursion loop are skipped until {@link #restoreLastBlurMipmap()}
+     */
     public static void startBlurMipmap() {
-        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-        AbstractTexture texture = (AbstractTexture) Minecraft.getMinecraft().getTextureManager().getTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-        texture.setBlurMipmap(false, false);
+        state.startBlurMipmap(stateSink);
     }
 
     public static void restoreLastBlurMipmap() {
-        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-        AbstractTexture texture = (AbstractTexture) Minecraft.getMinecraft().getTextureManager().getTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+        state.restoreLastBlurMipmap(stateSink);
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            if (table == null) {
+                freeze();
+            }
+            state.beginFrame();
+        }
     }
 
     /**
@@ -447,7 +548,7 @@ public class IItemRendererHandler {
      * do not call this directly from an iitemrenderer without gl translating 0.5F+
      */
     public static void applyTransforms(IBakedModel model) {
-        applyTransforms(model, IItemRendererHandler.currentTransformType, IItemRendererHandler.leftHandHackery);
+        applyTransforms(model, state.currentTransformType, IItemRendererHandler.leftHandHackery);
     }
 
     public static void applyTransforms(IBakedModel model, TransformType transformType, boolean leftHandHackery) {
@@ -491,7 +592,7 @@ public class IItemRendererHandler {
         if (preset == IItemRenderer.TransformPreset.NONE) {
             return;
         } else if (preset == IItemRenderer.TransformPreset.FIXED) {
-            applyLegacyTransforms(currentTransformType);
+            applyLegacyTransforms(state.currentTransformType);
         }
     }
 
@@ -0,0 +1,36 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * the gl state changes {@link ItemRenderState} and {@link ItemRenderBatch} make themselves go through here so they can be recorded by {@link RecordingRenderStateSink}.
+ * model transforms and the IItemRenderers still use GlStateManager directly, so a render pass is not headless as a whole
+ */
+@SideOnly(Side.CLIENT)
+public interface IRenderStateSink {
+
+    void pushMatrix();
+
+    void popMatrix();
+
+    void translate(float x, float y, float z);
+
+    void color(float r, float g, float b, float a);
+
+    void depthMask(boolean flag);
+
+    void enableLighting();
+
+    void enableRescaleNormal();
+
+    /**
+     * disable blur and mipmapping of the block texture atlas
+     */
+    void disableBlurMipmap();
+
+    /**
+     * restore the blur and mipmapping of the block texture atlas from before {@link #disableBlurMipmap()}
+     */
+    void restoreLastBlurMipmap();
+}
@@ -0,0 +1,15 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraft.client.renderer.BufferBuilder;
+
+/**
+ * receives position/color vertices, lets geometry be built without a {@link BufferBuilder} or gl context
+ */
+public interface IVertexSink {
+
+    void vertex(double x, double y, double z, int r, int g, int b, int a);
+
+    static IVertexSink of(BufferBuilder buffer) {
+        return (x, y, z, r, g, b, a) -> buffer.pos(x, y, z).color(r, g, b, a).endVertex();
+    }
+}
@@ -0,0 +1,141 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.block.model.ItemCameraTransforms.TransformType;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects IItemRenderer renders of one frame and draws them grouped by renderer and {@link TransformType},
+ * so the block atlas blur/mipmap is disabled and restored once per flush and the transform type only switches once per group.
+ * <br>
+ * The per item setup (lighting, rescale normal, depth mask, color) is re-applied before every item since the previous renderer may have changed it,
+ * GlStateManager drops the calls that do not change anything.
+ */
+@SideOnly(Side.CLIENT)
+public class ItemRenderBatch {
+    private final Map<GroupKey, List<Entry>> groups = new LinkedHashMap<>();
+    private int size;
+
+    /**
+     * @return false if the stack has no IItemRenderer, render it the vanilla way instead
+     */
+    public boolean add(ItemStack stack, IBakedModel model, TransformType type, float x, float y, float z) {
+        IItemRenderer renderer = IItemRendererHandler.get(stack);
+        if (renderer == null)
+            return false;
+        add(renderer, stack, model, type, x, y, z);
+        return true;
+    }
+
+    public void add(IItemRenderer renderer, ItemStack stack, IBakedModel model, TransformType type, float x, float y, float z) {
+        GroupKey key = new GroupKey(renderer, type);
+        List<Entry> entries = groups.get(key);
+        if (entries == null) {
+            entries = new ArrayList<>();
+            groups.put(key, entries);
+        }
+        entries.add(new Entry(stack, model, x, y, z));
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    public void flush(float partialTicks) {
+        flush(IItemRendererHandler.stateSink, IItemRendererHandler.state, Minecraft.getMinecraft().gameSettings.fancyGraphics, partialTicks);
+    }
+
+    /**
+     * render and clear everything in this batch
+     */
+    public void flush(IRenderStateSink sink, ItemRenderState state, boolean fancy, float partialTicks) {
+        if (size == 0)
+            return;
+        TransformType previousType = state.currentTransformType;
+        boolean wasRunning = IItemRendererHandler.isRunning;
+        state.startBlurMipmap(sink);
+        for (Map.Entry<GroupKey, List<Entry>> group : groups.entrySet()) {
+            IItemRenderer renderer = group.getKey().renderer;
+            TransformType type = group.getKey().type;
+
+            state.currentTransformType = type;
+            IItemRendererHandler.mirrorState();
+            IItemRendererHandler.lastRenderer = renderer;
+            IItemRendererHandler.isRunning = true;
+            for (Entry entry : group.getValue()) {
+                sink.enableLighting();
+                sink.enableRescaleNormal();
+                sink.depthMask(true);
+                sink.color(1.0F, 1.0F, 1.0F, 1.0F);
+                sink.pushMatrix();
+                sink.translate(entry.x, entry.y, entry.z);
+                IItemRendererHandler.applyTransforms(renderer, entry.model);
+                sink.translate(-0.5F, -0.5F, -0.5F);
+                if (fancy) {
+                    renderer.render(entry.stack, entry.model, type, partialTicks);
+                } else {
+                    renderer.renderFast(entry.stack, entry.model, type, partialTicks);
+                }
+                sink.popMatrix();
+            }
+            IItemRendererHandler.isRunning = wasRunning;
+        }
+        state.currentTransformType = previousType;
+        IItemRendererHandler.mirrorState();
+        if (!wasRunning) {
+            state.restoreLastBlurMipmap(sink);
+        }
+        groups.clear();
+        size = 0;
+    }
+
+    private static class GroupKey {
+        private final IItemRenderer renderer;
+        private final TransformType type;
+
+        private GroupKey(IItemRenderer renderer, TransformType type) {
+            this.renderer = renderer;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GroupKey))
+                return false;
+            GroupKey key = (GroupKey) obj;
+            return renderer == key.renderer && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(renderer) + (type == null ? 0 : type.ordinal());
+        }
+    }
+
+    private static class Entry {
+        private final ItemStack stack;
+        private final IBakedModel model;
+        private final float x, y, z;
+
+        private Entry(ItemStack stack, IBakedModel model, float x, float y, float z) {
+            this.stack = stack;
+            this.model = model;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraft.client.renderer.block.model.ItemCameraTransforms.TransformType;
+import net.minecraft.entity.Entity;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Per frame snapshot of the IItemRenderer render context.
+ * Besides the holder data it remembers whether blur and mipmaps of the block atlas are already disabled,
+ * so nested renders of a recursion loop skip the texture parameter changes and only the outermost one restores them.
+ * Depth mask, lighting and the like are left to {@link net.minecraft.client.renderer.GlStateManager} which already skips redundant calls.
+ */
+@SideOnly(Side.CLIENT)
+public class ItemRenderState {
+    public double lastX;
+    public double lastY;
+    public double lastZ;
+    public double lastYaw;
+    public double lastPitch;
+    public double lastYawHead;
+    /**
+     * the last known entity holder for rendering your IItemRenderer may be null
+     */
+    public Entity lastEntity;
+
+    /**
+     * this field gets updated when ForgeHooksClient#handleCameraTransforms() use with caution as this can change even during an iitemrenderer use lastTransformType or cachedTrasnformType
+     */
+    public TransformType currentTransformType;
+    /**
+     * this is always the first transform type at the start of the recursive loop of camera transitions
+     */
+    public TransformType cachedTransformType;
+    /**
+     * gets set to current transform type after {@link IItemRenderer#restoreLastOpenGl()} is called.
+     */
+    public TransformType lastTransformType;
+
+    private boolean blurMipmapDisabled;
+
+    private long frame;
+    private int stateChanges;
+    private int stateChangesAvoided;
+    private long totalStateChanges;
+    private long totalStateChangesAvoided;
+
+    /**
+     * gets called at the start of every render frame
+     */
+    public void beginFrame() {
+        frame++;
+        stateChanges = 0;
+        stateChangesAvoided = 0;
+    }
+
+    /**
+     * disable blur and mipmaps unless they already are, nested renders then keep the values from before the outermost call
+     */
+    public void startBlurMipmap(IRenderStateSink sink) {
+        if (blurMipmapDisabled) {
+            avoided();
+            return;
+        }
+        blurMipmapDisabled = true;
+        changed();
+        sink.disableBlurMipmap();
+    }
+
+    public void restoreLastBlurMipmap(IRenderStateSink sink) {
+        if (!blurMipmapDisabled)
+            return;
+        blurMipmapDisabled = false;
+        changed();
+        sink.restoreLastBlurMipmap();
+    }
+
+    private void avoided() {
+        stateChangesAvoided++;
+        totalStateChangesAvoided++;
+    }
+
+    private void changed() {
+        stateChanges++;
+        totalStateChanges++;
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * blur/mipmap changes sent to the sink this frame
+     */
+    public int getStateChanges() {
+        return stateChanges;
+    }
+
+    /**
+     * nested blur/mipmap changes skipped this frame
+     */
+    public int getStateChangesAvoided() {
+        return stateChangesAvoided;
+    }
+
+    public long getTotalStateChanges() {
+        return totalStateChanges;
+    }
+
+    public long getTotalStateChangesAvoided() {
+        return totalStateChangesAvoided;
+    }
+}
@@ -0,0 +1,67 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraft.item.Item;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Map;
+
+/**
+ * Frozen, identity hashed copy of the IItemRenderer registry.
+ * Keys and renderers live in two flat arrays probed linearly and the table is kept at most half full,
+ * so a lookup is usually a single array load and an item without a renderer hits an empty slot right away.
+ */
+@SideOnly(Side.CLIENT)
+public final class ItemRendererTable {
+    private final Item[] keys;
+    private final IItemRenderer[] values;
+    private final int shift;
+    private final int mask;
+    private final int size;
+
+    public ItemRendererTable(Map<Item, IItemRenderer> registry) {
+        int capacity = 2;
+        while (capacity < registry.size() * 2) {
+            capacity <<= 1;
+        }
+        keys = new Item[capacity];
+        values = new IItemRenderer[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        mask = capacity - 1;
+        size = registry.size();
+        for (Map.Entry<Item, IItemRenderer> entry : registry.entrySet()) {
+            int i = index(entry.getKey());
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+        }
+    }
+
+    private int index(Item item) {
+        // fibonacci hashing spreads the identity hash over the top bits
+        return (System.identityHashCode(item) * 0x9E3779B9) >>> shift & mask;
+    }
+
+    public IItemRenderer get(Item item) {
+        if (size == 0)
+            return null;
+        int i = index(item);
+        Item key;
+        while ((key = keys[i]) != null) {
+            if (key == item)
+                return values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean contains(Item item) {
+        return get(item) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+}
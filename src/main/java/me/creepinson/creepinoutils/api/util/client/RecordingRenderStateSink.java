@@ -0,0 +1,78 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * an {@link IRenderStateSink} that only records the calls made to it, use it to check which setup changes the pipeline itself makes
+ */
+@SideOnly(Side.CLIENT)
+public class RecordingRenderStateSink implements IRenderStateSink {
+    private final List<String> calls = new ArrayList<>();
+
+    public List<String> getCalls() {
+        return Collections.unmodifiableList(calls);
+    }
+
+    public int count(String call) {
+        int count = 0;
+        for (String c : calls) {
+            if (c.equals(call))
+                count++;
+        }
+        return count;
+    }
+
+    public void clear() {
+        calls.clear();
+    }
+
+    @Override
+    public void pushMatrix() {
+        calls.add("pushMatrix");
+    }
+
+    @Override
+    public void popMatrix() {
+        calls.add("popMatrix");
+    }
+
+    @Override
+    public void translate(float x, float y, float z) {
+        calls.add("translate");
+    }
+
+    @Override
+    public void color(float r, float g, float b, float a) {
+        calls.add("color");
+    }
+
+    @Override
+    public void depthMask(boolean flag) {
+        calls.add("depthMask " + flag);
+    }
+
+    @Override
+    public void enableLighting() {
+        calls.add("enableLighting");
+    }
+
+    @Override
+    public void enableRescaleNormal() {
+        calls.add("enableRescaleNormal");
+    }
+
+    @Override
+    public void disableBlurMipmap() {
+        calls.add("disableBlurMipmap");
+    }
+
+    @Override
+    public void restoreLastBlurMipmap() {
+        calls.add("restoreLastBlurMipmap");
+    }
+}
@@ -0,0 +1,49 @@
+package me.creepinson.creepinoutils.api.util.client;
+
+import java.util.Arrays;
+
+/**
+ * an {@link IVertexSink} that stores every vertex it gets in flat arrays, use it to check built geometry headless
+ */
+public class RecordingVertexSink implements IVertexSink {
+    private double[] positions = new double[3 * 64];
+    private int[] colors = new int[64];
+    private int vertexCount;
+
+    @Override
+    public void vertex(double x, double y, double z, int r, int g, int b, int a) {
+        if (vertexCount == colors.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            colors = Arrays.copyOf(colors, colors.length * 2);
+        }
+        positions[vertexCount * 3] = x;
+        positions[vertexCount * 3 + 1] = y;
+        positions[vertexCount * 3 + 2] = z;
+        colors[vertexCount] = (a & 0xFF) << 24 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+        vertexCount++;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public double getX(int vertex) {
+        return positions[vertex * 3];
+    }
+
+    public double getY(int vertex) {
+        return positions[vertex * 3 + 1];
+    }
+
+    public double getZ(int vertex) {
+        return positions[vertex * 3 + 2];
+    }
+
+    public int getColor(int vertex) {
+        return colors[vertex];
+    }
+
+    public void clear() {
+        vertexCount = 0;
+    }
+}
@@ -57,13 +57,17 @@ public class RenderItemObj extends RenderItem {
             //new code I find nessary for this to work
             GlStateManager.depthMask(true);//set depth mask to true in case vanilla decides hey it's an ice block enable depth mask
 
-            TransformType t = IItemRendererHandler.currentTransformType;
+            TransformType t = IItemRendererHandler.state.currentTransformType;
             float pt = this.mc.getRenderPartialTicks();
             IItemRendererHandler.updateLastPos(t);
 
+            boolean wasRunning = IItemRendererHandler.isRunning;
             IItemRendererHandler.isRunning = true;
             IItemRendererHandler.render(renderer, itemstack, model, t, pt);
-            IItemRendererHandler.isRunning = false;
+            IItemRendererHandler.isRunning = wasRunning;
+            if (!wasRunning) {
+                IItemRendererHandler.restoreLastBlurMipmap();
+            }
 
             GlStateManager.popMatrix();
         } else {
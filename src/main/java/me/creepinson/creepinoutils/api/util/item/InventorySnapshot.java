@@ -0,0 +1,148 @@
+package me.creepinson.creepinoutils.api.util.item;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.Arrays;
+
+/**
+ * Remembers a fingerprint of every slot of an {@link IItemHandler} and reports only the slots that changed since the last scan.
+ * A fingerprint is two longs per slot (item id and meta, count and nbt hash), so a scan compares primitives
+ * instead of deep comparing stacks with {@link ItemStack#areItemStacksEqual(ItemStack, ItemStack)}.
+ * <br>
+ * Big inventories can be spread over several ticks with {@link #setStride(int)}, every scan then only looks at that many slots.
+ */
+public class InventorySnapshot {
+    private static final long EMPTY_ITEM = -1L;
+
+    private final IItemHandler handler;
+    private long[] fingerprints = new long[0];
+    private int stride = Integer.MAX_VALUE;
+    private int cursor;
+
+    public InventorySnapshot(IItemHandler handler) {
+        this.handler = handler;
+    }
+
+    public interface ISlotChangeListener {
+        /**
+         * @param stack the new contents of the slot, {@link ItemStack#EMPTY} if it was emptied or removed
+         */
+        void onSlotChanged(IItemHandler handler, int slot, ItemStack stack);
+    }
+
+    public IItemHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * @param stride the most slots looked at per {@link #scan(ISlotChangeListener)}
+     */
+    public void setStride(int stride) {
+        this.stride = Math.max(1, stride);
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * compare the next stride slots against their fingerprints, continuing where the last scan stopped
+     *
+     * @return how many slots changed
+     */
+    public int scan(ISlotChangeListener listener) {
+        int size = resize(listener);
+        if (size == 0)
+            return 0;
+        int count = Math.min(stride, size);
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            if (cursor >= size) {
+                cursor = 0;
+            }
+            if (check(cursor, listener)) {
+                changed++;
+            }
+            cursor++;
+        }
+        return changed;
+    }
+
+    /**
+     * compare every slot regardless of the stride
+     *
+     * @return how many slots changed
+     */
+    public int scanAll(ISlotChangeListener listener) {
+        int size = resize(listener);
+        int changed = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (check(slot, listener)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * forget every fingerprint, the next full scan reports every non empty slot
+     */
+    public void reset() {
+        Arrays.fill(fingerprints, 0L);
+        for (int i = 0; i < fingerprints.length; i += 2) {
+            fingerprints[i] = EMPTY_ITEM;
+        }
+    }
+
+    private int resize(ISlotChangeListener listener) {
+        int size = handler.getSlots();
+        int known = fingerprints.length / 2;
+        if (size != known) {
+            for (int slot = size; slot < known; slot++) {
+                if (fingerprints[slot * 2] != EMPTY_ITEM) {
+                    listener.onSlotChanged(handler, slot, ItemStack.EMPTY);
+                }
+            }
+            fingerprints = Arrays.copyOf(fingerprints, size * 2);
+            for (int slot = known; slot < size; slot++) {
+                fingerprints[slot * 2] = EMPTY_ITEM;
+            }
+            if (cursor >= size) {
+                cursor = 0;
+            }
+        }
+        return size;
+    }
+
+    private boolean check(int slot, ISlotChangeListener listener) {
+        ItemStack stack = handler.getStackInSlot(slot);
+        long item = itemPrint(stack);
+        long amount = stack.isEmpty() ? 0L : amountPrint(stack);
+        int index = slot * 2;
+        if (fingerprints[index] == item && fingerprints[index + 1] == amount)
+            return false;
+        fingerprints[index] = item;
+        fingerprints[index + 1] = amount;
+        listener.onSlotChanged(handler, slot, stack);
+        return true;
+    }
+
+    /**
+     * item id in the high half and meta in the low half, or -1 for an empty stack
+     */
+    public static long itemPrint(ItemStack stack) {
+        if (stack.isEmpty())
+            return EMPTY_ITEM;
+        return (long) Item.getIdFromItem(stack.getItem()) << 32 | (stack.getMetadata() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * count in the high half and the nbt hash in the low half
+     */
+    public static long amountPrint(ItemStack stack) {
+        int nbt = stack.hasTagCompound() ? stack.getTagCompound().hashCode() : 0;
+        return (long) stack.getCount() << 32 | (nbt & 0xFFFFFFFFL);
+    }
+}
@@ -98,12 +98,15 @@ public class Chunk3D implements Serializable {
         return obj instanceof Chunk3D && ((Chunk3D) obj).x == x && ((Chunk3D) obj).z == z && ((Chunk3D) obj).dimensionId == dimensionId;
     }
 
+    /**
+     * @return the chunk coordinates packed like {@link ChunkPos#asLong(int, int)}, the dimension is not included
+     */
+    public long toLong() {
+        return HashUtils.packChunk(x, z);
+    }
+
     @Override
     public int hashCode() {
-        int code = 1;
-        code = 31 * code + x;
-        code = 31 * code + z;
-        code = 31 * code + dimensionId;
-        return code;
+        return HashUtils.hashDimPos(dimensionId, toLong());
     }
 }
\ No newline at end of file
@@ -249,8 +249,20 @@ public class Coord4D implements Serializable {
         return "[Coord4D: " + vector.x + ", " + vector.y + ", " + vector.z + ", dim=" + dimensionId + "]";
     }
 
+    /**
+     * @return the block position of this Coord4D packed like {@link BlockPos#toLong()}, the dimension is not included
+     */
+    public long toLong() {
+        return HashUtils.packBlock(vector.intX(), vector.intY(), vector.intZ());
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof Coord4D && ((Coord4D) obj).vector.equals(vector) && ((Coord4D) obj).dimensionId == dimensionId;
     }
+
+    @Override
+    public int hashCode() {
+        return HashUtils.hashDimPos(dimensionId, toLong());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package me.creepinson.creepinoutils.api.util.math;
+
+import com.draco18s.hardlib.api.ChunkCoords;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * A map keyed by dimension and packed position without boxing or coordinate objects.
+ * Every dimension gets its own {@link Long2ObjectOpenHashMap} keyed by {@link HashUtils#packBlock(int, int, int)}
+ * or {@link HashUtils#packChunk(int, int)}, use one map per kind of key.
+ */
+public class DimensionPosMap<V> {
+    private final Int2ObjectMap<Long2ObjectMap<V>> dimensions = new Int2ObjectOpenHashMap<>();
+    private int size;
+
+    public V get(int dimension, long pos) {
+        Long2ObjectMap<V> map = dimensions.get(dimension);
+        return map == null ? null : map.get(pos);
+    }
+
+    public boolean containsKey(int dimension, long pos) {
+        Long2ObjectMap<V> map = dimensions.get(dimension);
+        return map != null && map.containsKey(pos);
+    }
+
+    public V put(int dimension, long pos, V value) {
+        Long2ObjectMap<V> map = dimensions.get(dimension);
+        if (map == null) {
+            map = new Long2ObjectOpenHashMap<>();
+            dimensions.put(dimension, map);
+        }
+        boolean existed = map.containsKey(pos);
+        V old = map.put(pos, value);
+        if (!existed) {
+            size++;
+        }
+        return old;
+    }
+
+    public V remove(int dimension, long pos) {
+        Long2ObjectMap<V> map = dimensions.get(dimension);
+        if (map == null || !map.containsKey(pos))
+            return null;
+        V old = map.remove(pos);
+        size--;
+        if (map.isEmpty()) {
+            dimensions.remove(dimension);
+        }
+        return old;
+    }
+
+    public V get(Coord4D coord) {
+        return get(coord.dimensionId, coord.toLong());
+    }
+
+    public V put(Coord4D coord, V value) {
+        return put(coord.dimensionId, coord.toLong(), value);
+    }
+
+    public V get(Chunk3D chunk) {
+        return get(chunk.dimensionId, chunk.toLong());
+    }
+
+    public V put(Chunk3D chunk, V value) {
+        return put(chunk.dimensionId, chunk.toLong(), value);
+    }
+
+    public V get(ChunkCoords coords) {
+        return get(coords.dimID, coords.toLong());
+    }
+
+    public V put(ChunkCoords coords, V value) {
+        return put(coords.dimID, coords.toLong(), value);
+    }
+
+    /**
+     * the positions of one dimension, null if it has none
+     */
+    public Long2ObjectMap<V> getDimension(int dimension) {
+        return dimensions.get(dimension);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        dimensions.clear();
+        size = 0;
+    }
+}
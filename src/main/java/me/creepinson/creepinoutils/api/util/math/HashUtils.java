@@ -16,6 +16,41 @@ public class HashUtils {
         return fODD_PRIME_NUMBER * aSeed;
     }
 
+    /**
+     * Packs a block position into a long with the same layout as {@link net.minecraft.util.math.BlockPos#toLong()}.
+     */
+    public static long packBlock(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | (long) z & 0x3FFFFFFL;
+    }
+
+    /**
+     * Packs chunk coordinates into a long with the same layout as {@link net.minecraft.util.math.ChunkPos#asLong(int, int)}.
+     */
+    public static long packChunk(int x, int z) {
+        return (long) x & 0xFFFFFFFFL | ((long) z & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * The murmur3 64 bit finalizer, every input bit affects every output bit.
+     * The seed and prime hashes above barely change for neighbouring coordinates, so coordinates should be packed and mixed instead.
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * @return a well distributed hash of a dimension and a packed position
+     */
+    public static int hashDimPos(int dimension, long packed) {
+        long mixed = mix(packed ^ (long) dimension * 0x9E3779B97F4A7C15L);
+        return (int) (mixed ^ mixed >>> 32);
+    }
+
     /**
      * Compares two version strings.
      * <p>
@@ -0,0 +1,238 @@
+package me.creepinson.creepinoutils.api.util.math;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.EnumFacing.Axis;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3i;
+
+import javax.vecmath.Tuple3d;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * The 24 axis aligned orientations, the group generated by the quarter turns of {@link Rotation}.
+ * An orientation is an index from 0 to 23, {@link #IDENTITY} leaves everything as it is.
+ * Composing, inverting and turning facings are table lookups, transforming a position is one integer matrix multiply,
+ * so any chain of rotations costs the same as a single one.
+ */
+public class Orientation {
+    public static final int COUNT = 24;
+    public static final int IDENTITY = 0;
+
+    /**
+     * row major 3x3 matrix of every orientation
+     */
+    private static final int[][] MATRICES = new int[COUNT][];
+    /**
+     * COMPOSE[second][first] is the orientation of applying first and then second
+     */
+    private static final int[][] COMPOSE = new int[COUNT][COUNT];
+    private static final int[] INVERSE = new int[COUNT];
+    private static final int[] BY_ROTATION = new int[Rotation.values().length];
+    /**
+     * clockwise quarter turns around x, then y, then z, each 0 to 3
+     */
+    private static final int[] BY_TURNS = new int[4 * 4 * 4];
+    private static final EnumFacing[][] FACINGS = new EnumFacing[COUNT][EnumFacing.VALUES.length];
+    /**
+     * the axis the unit vector of an axis ends up on and whether it keeps pointing the positive way
+     */
+    private static final Axis[][] AXES = new Axis[COUNT][3];
+    private static final boolean[][] POSITIVE = new boolean[COUNT][3];
+
+    static {
+        // every entry is -1, 0 or 1, a base 3 number of the nine entries identifies a matrix
+        int[] indexOfKey = new int[19683];
+        Arrays.fill(indexOfKey, -1);
+        int count = 0;
+        MATRICES[count] = new int[]{1, 0, 0, 0, 1, 0, 0, 0, 1};
+        indexOfKey[key(MATRICES[count])] = count++;
+        ArrayDeque<int[]> open = new ArrayDeque<>();
+        open.add(MATRICES[IDENTITY]);
+        while (!open.isEmpty()) {
+            int[] matrix = open.poll();
+            for (Rotation rotation : Rotation.values()) {
+                int[] next = multiply(toArray(rotation.getMatrix()), matrix);
+                int key = key(next);
+                if (indexOfKey[key] == -1) {
+                    MATRICES[count] = next;
+                    indexOfKey[key] = count++;
+                    open.add(next);
+                }
+            }
+        }
+        if (count != COUNT)
+            throw new IllegalStateException("Quarter turns generated " + count + " orientations");
+
+        for (int second = 0; second < COUNT; second++) {
+            for (int first = 0; first < COUNT; first++) {
+                int composed = indexOfKey[key(multiply(MATRICES[second], MATRICES[first]))];
+                COMPOSE[second][first] = composed;
+                if (composed == IDENTITY) {
+                    INVERSE[first] = second;
+                }
+            }
+        }
+        for (Rotation rotation : Rotation.values()) {
+            BY_ROTATION[rotation.ordinal()] = indexOfKey[key(toArray(rotation.getMatrix()))];
+        }
+        int xTurn = BY_ROTATION[Rotation.X_CLOCKWISE.ordinal()];
+        int yTurn = BY_ROTATION[Rotation.Y_CLOCKWISE.ordinal()];
+        int zTurn = BY_ROTATION[Rotation.Z_CLOCKWISE.ordinal()];
+        for (int x = 0, xs = IDENTITY; x < 4; x++, xs = COMPOSE[xTurn][xs]) {
+            for (int y = 0, ys = xs; y < 4; y++, ys = COMPOSE[yTurn][ys]) {
+                for (int z = 0, zs = ys; z < 4; z++, zs = COMPOSE[zTurn][zs]) {
+                    BY_TURNS[(x << 4) | (y << 2) | z] = zs;
+                }
+            }
+        }
+
+        for (int orientation = 0; orientation < COUNT; orientation++) {
+            int[] m = MATRICES[orientation];
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                Vec3i normal = facing.getDirectionVec();
+                Vec3i rotated = new Vec3i(getX(m, normal.getX(), normal.getY(), normal.getZ()), getY(m, normal.getX(), normal.getY(), normal.getZ()), getZ(m, normal.getX(), normal.getY(), normal.getZ()));
+                for (EnumFacing candidate : EnumFacing.VALUES) {
+                    if (candidate.getDirectionVec().equals(rotated)) {
+                        FACINGS[orientation][facing.getIndex()] = candidate;
+                    }
+                }
+            }
+            for (Axis axis : Axis.values()) {
+                // the column of the axis holds exactly one non zero entry, its row is the new axis
+                int column = axis.ordinal();
+                for (int row = 0; row < 3; row++) {
+                    int value = m[row * 3 + column];
+                    if (value != 0) {
+                        AXES[orientation][column] = Axis.values()[row];
+                        POSITIVE[orientation][column] = value > 0;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int key(int[] matrix) {
+        int key = 0;
+        for (int value : matrix) {
+            key = key * 3 + value + 1;
+        }
+        return key;
+    }
+
+    private static int[] toArray(Rotation.RotationMatrix matrix) {
+        return new int[]{matrix.m00, matrix.m01, matrix.m02, matrix.m10, matrix.m11, matrix.m12, matrix.m20, matrix.m21, matrix.m22};
+    }
+
+    private static int[] multiply(int[] a, int[] b) {
+        int[] result = new int[9];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                result[row * 3 + column] = a[row * 3] * b[column] + a[row * 3 + 1] * b[3 + column] + a[row * 3 + 2] * b[6 + column];
+            }
+        }
+        return result;
+    }
+
+    private static int getX(int[] m, int x, int y, int z) {
+        return x * m[0] + y * m[1] + z * m[2];
+    }
+
+    private static int getY(int[] m, int x, int y, int z) {
+        return x * m[3] + y * m[4] + z * m[5];
+    }
+
+    private static int getZ(int[] m, int x, int y, int z) {
+        return x * m[6] + y * m[7] + z * m[8];
+    }
+
+    public static int of(Rotation rotation) {
+        return BY_ROTATION[rotation.ordinal()];
+    }
+
+    /**
+     * the orientation of turning around x, then y, then z, positive counts are clockwise quarter turns and negative ones
+     * counter clockwise, the way {@link Transformation} stores them
+     */
+    public static int of(int rotX, int rotY, int rotZ) {
+        return BY_TURNS[(Math.floorMod(rotX, 4) << 4) | (Math.floorMod(rotY, 4) << 2) | Math.floorMod(rotZ, 4)];
+    }
+
+    /**
+     * @return the orientation of applying first and then second
+     */
+    public static int compose(int second, int first) {
+        return COMPOSE[second][first];
+    }
+
+    public static int inverse(int orientation) {
+        return INVERSE[orientation];
+    }
+
+    /**
+     * a copy of the matrix of the orientation
+     */
+    public static Rotation.RotationMatrix getMatrix(int orientation) {
+        int[] m = MATRICES[orientation];
+        return new Rotation.RotationMatrix(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8]);
+    }
+
+    public static EnumFacing transform(int orientation, EnumFacing facing) {
+        return FACINGS[orientation][facing.getIndex()];
+    }
+
+    /**
+     * @return the axis the given axis is turned onto
+     */
+    public static Axis transform(int orientation, Axis axis) {
+        return AXES[orientation][axis.ordinal()];
+    }
+
+    /**
+     * @return false if the positive direction of the axis ends up pointing the negative way of its new axis
+     */
+    public static boolean isPositive(int orientation, Axis axis) {
+        return POSITIVE[orientation][axis.ordinal()];
+    }
+
+    public static BlockPos transform(int orientation, BlockPos pos) {
+        if (orientation == IDENTITY)
+            return pos;
+        int[] m = MATRICES[orientation];
+        return new BlockPos(getX(m, pos.getX(), pos.getY(), pos.getZ()), getY(m, pos.getX(), pos.getY(), pos.getZ()), getZ(m, pos.getX(), pos.getY(), pos.getZ()));
+    }
+
+    public static Vec3i transform(int orientation, Vec3i vec) {
+        if (orientation == IDENTITY)
+            return vec;
+        int[] m = MATRICES[orientation];
+        return new Vec3i(getX(m, vec.getX(), vec.getY(), vec.getZ()), getY(m, vec.getX(), vec.getY(), vec.getZ()), getZ(m, vec.getX(), vec.getY(), vec.getZ()));
+    }
+
+    public static void transform(int orientation, Tuple3d triple) {
+        int[] m = MATRICES[orientation];
+        double x = triple.x * m[0] + triple.y * m[1] + triple.z * m[2];
+        double y = triple.x * m[3] + triple.y * m[4] + triple.z * m[5];
+        double z = triple.x * m[6] + triple.y * m[7] + triple.z * m[8];
+        triple.set(x, y, z);
+    }
+
+    /**
+     * turn many positions around a center in place
+     *
+     * @param positions x, y and z of every position one after another
+     */
+    public static void transform(int orientation, int[] positions, int centerX, int centerY, int centerZ) {
+        if (positions.length % 3 != 0)
+            throw new IllegalArgumentException("Positions array length " + positions.length + " is not a multiple of 3");
+        if (orientation == IDENTITY)
+            return;
+        int[] m = MATRICES[orientation];
+        for (int i = 0; i < positions.length; i += 3) {
+            int x = positions[i] - centerX, y = positions[i + 1] - centerY, z = positions[i + 2] - centerZ;
+            positions[i] = getX(m, x, y, z) + centerX;
+            positions[i + 1] = getY(m, x, y, z) + centerY;
+            positions[i + 2] = getZ(m, x, y, z) + centerZ;
+        }
+    }
+}
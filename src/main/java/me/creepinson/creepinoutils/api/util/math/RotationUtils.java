@@ -216,12 +216,7 @@ public class RotationUtils {
     }
 
     public static EnumFacing rotate(EnumFacing facing, Rotation rotation) {
-        Vec3i rotatedNormal = new Vec3i(rotation.getMatrix().getX(facing.getDirectionVec()), rotation.getMatrix().getY(facing.getDirectionVec()), rotation.getMatrix().getZ(facing.getDirectionVec()));
-        for (EnumFacing rotated : EnumFacing.VALUES) {
-            if (rotated.getDirectionVec().equals(rotatedNormal))
-                return rotated;
-        }
-        return facing;
+        return Orientation.transform(Orientation.of(rotation), facing);
     }
 
     public static Vec3i rotate(Vec3i vec, Rotation rotation) {
@@ -1,11 +1,19 @@
 package me.creepinson.creepinoutils.api.util.math;
 
+/**
+ * A value moving linearly towards the one it was last set to over {@link #time} milliseconds.
+ * Many values moving together are cheaper as members of a {@link SmoothValueGroup}, which reads the clock once per frame.
+ */
 public class SmoothValue {
 
     protected double aimed;
     protected double current;
     protected double before;
+    /**
+     * {@link System#nanoTime()} of the last {@link #set(double)}
+     */
     protected long timestamp;
+    protected boolean moving;
 
     public final long time;
 
@@ -22,23 +30,35 @@ public class SmoothValue {
         this.aimed = value;
         this.current = value;
         this.before = value;
-        this.timestamp = 0;
+        this.moving = false;
     }
 
     public void set(double value) {
-        timestamp = System.currentTimeMillis();
+        timestamp = System.nanoTime();
+        moving = true;
         this.aimed = value;
         before = this.current;
     }
 
     public void tick() {
-        if (timestamp != 0) {
-            if (timestamp + time <= System.currentTimeMillis()) {
+        if (moving) {
+            tick(System.nanoTime());
+        }
+    }
+
+    /**
+     * @param now a {@link System#nanoTime()} sample, shared by everything ticked in the same frame
+     */
+    public void tick(long now) {
+        if (moving) {
+            // a shared sample taken before the last set would move the value away from its target
+            long passed = Math.max(0, now - timestamp);
+            if (passed >= time * 1000000L) {
                 current = aimed;
                 before = current;
-                timestamp = 0;
+                moving = false;
             } else
-                current = before + (aimed - before) * ((System.currentTimeMillis() - timestamp) / (double) time);
+                current = before + (aimed - before) * (passed / (time * 1000000D));
         }
     }
 
@@ -0,0 +1,163 @@
+package me.creepinson.creepinoutils.api.util.math;
+
+import me.creepinson.creepinoutils.api.util.math.interpolation.Interpolation;
+
+import java.util.Arrays;
+
+/**
+ * Many {@link SmoothValue}s stored in primitive arrays and advanced together.
+ * {@link #tick()} reads {@link System#nanoTime()} once and only visits the members still moving, settled ones cost nothing.
+ * <br>
+ * Members are addressed by the index {@link #add(long, double)} returned.
+ * How a member moves from its old to its new value is decided by the easing of the group,
+ * null moves linearly, an {@link Interpolation} between the points (0, 0, 0) and (1, 1, 1) reshapes the progress with its x.
+ */
+public class SmoothValueGroup {
+
+    private double[] aimed = new double[16];
+    private double[] current = new double[16];
+    private double[] before = new double[16];
+    private long[] timestamp = new long[16];
+    private long[] duration = new long[16];
+    /**
+     * the indices of the moving members, followed by unused entries
+     */
+    private int[] moving = new int[16];
+    /**
+     * where a member is in {@link #moving}, -1 if it is settled
+     */
+    private int[] movingSlot = new int[16];
+    private int size;
+    private int movingCount;
+
+    private Interpolation easing;
+    private final float[] eased = new float[3];
+
+    public SmoothValueGroup() {
+    }
+
+    public SmoothValueGroup(Interpolation easing) {
+        this.easing = easing;
+    }
+
+    public void setEasing(Interpolation easing) {
+        this.easing = easing;
+    }
+
+    public Interpolation getEasing() {
+        return easing;
+    }
+
+    /**
+     * @param time milliseconds a change takes
+     * @return the index of the new member
+     */
+    public int add(long time, double initialValue) {
+        if (size == aimed.length) {
+            int capacity = size * 2;
+            aimed = Arrays.copyOf(aimed, capacity);
+            current = Arrays.copyOf(current, capacity);
+            before = Arrays.copyOf(before, capacity);
+            timestamp = Arrays.copyOf(timestamp, capacity);
+            duration = Arrays.copyOf(duration, capacity);
+            moving = Arrays.copyOf(moving, capacity);
+            movingSlot = Arrays.copyOf(movingSlot, capacity);
+        }
+        int index = size++;
+        duration[index] = time * 1000000L;
+        movingSlot[index] = -1;
+        setStart(index, initialValue);
+        return index;
+    }
+
+    public int add(long time) {
+        return add(time, 0);
+    }
+
+    /**
+     * jump to the value without moving
+     */
+    public void setStart(int index, double value) {
+        aimed[index] = value;
+        current[index] = value;
+        before[index] = value;
+        settle(index);
+    }
+
+    public void set(int index, double value) {
+        set(index, value, System.nanoTime());
+    }
+
+    /**
+     * @param now a {@link System#nanoTime()} sample, lets several members set in the same frame share it
+     */
+    public void set(int index, double value, long now) {
+        if (value == aimed[index] && movingSlot[index] == -1)
+            return;
+        timestamp[index] = now;
+        aimed[index] = value;
+        before[index] = current[index];
+        if (movingSlot[index] == -1) {
+            movingSlot[index] = movingCount;
+            moving[movingCount++] = index;
+        }
+    }
+
+    public void tick() {
+        if (movingCount > 0) {
+            tick(System.nanoTime());
+        }
+    }
+
+    /**
+     * advance every moving member to the given time
+     */
+    public void tick(long now) {
+        for (int slot = movingCount - 1; slot >= 0; slot--) {
+            int index = moving[slot];
+            long passed = Math.max(0, now - timestamp[index]);
+            if (passed >= duration[index]) {
+                current[index] = aimed[index];
+                before[index] = aimed[index];
+                settle(index);
+                continue;
+            }
+            double progress = (double) passed / duration[index];
+            if (easing != null) {
+                progress = easing.valueAt(progress, eased)[0];
+            }
+            current[index] = before[index] + (aimed[index] - before[index]) * progress;
+        }
+    }
+
+    private void settle(int index) {
+        int slot = movingSlot[index];
+        if (slot == -1)
+            return;
+        // the last moving member takes the place of the settled one
+        int last = moving[--movingCount];
+        moving[slot] = last;
+        movingSlot[last] = slot;
+        movingSlot[index] = -1;
+    }
+
+    public double current(int index) {
+        return current[index];
+    }
+
+    public double aimed(int index) {
+        return aimed[index];
+    }
+
+    public boolean isMoving(int index) {
+        return movingSlot[index] != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMovingCount() {
+        return movingCount;
+    }
+}
@@ -68,31 +68,38 @@ public class Transformation {
         return null;
     }
 
-    public BlockPos transform(BlockPos pos) {
-        pos = pos.subtract(center);
-        if (rotX != 0) {
-            Rotation rotation = getRotation(EnumFacing.Axis.X);
-            for (int i = 0; i < Math.abs(rotX); i++)
-                pos = RotationUtils.rotate(pos, rotation);
-        }
-        if (rotY != 0) {
-            Rotation rotation = getRotation(EnumFacing.Axis.Y);
-            for (int i = 0; i < Math.abs(rotY); i++)
-                pos = RotationUtils.rotate(pos, rotation);
-        }
-        if (rotZ != 0) {
-            Rotation rotation = getRotation(EnumFacing.Axis.Z);
-            for (int i = 0; i < Math.abs(rotZ); i++)
-                pos = RotationUtils.rotate(pos, rotation);
-        }
+    /**
+     * the rotations around x, y and z applied in that order as one of the 24 {@link Orientation}s
+     */
+    public int getOrientation() {
+        return Orientation.of(rotX, rotY, rotZ);
+    }
 
-        pos = pos.add(center);
+    public BlockPos transform(BlockPos pos) {
+        pos = Orientation.transform(getOrientation(), pos.subtract(center)).add(center);
 
         if (offset != null)
             pos = pos.add(offset.toBlockPos());
         return pos;
     }
 
+    /**
+     * transform many positions in place
+     *
+     * @param positions x, y and z of every position one after another
+     */
+    public void transform(int[] positions) {
+        Orientation.transform(getOrientation(), positions, center.getX(), center.getY(), center.getZ());
+        if (offset != null) {
+            BlockPos move = offset.toBlockPos();
+            for (int i = 0; i < positions.length; i += 3) {
+                positions[i] += move.getX();
+                positions[i + 1] += move.getY();
+                positions[i + 2] += move.getZ();
+            }
+        }
+    }
+
 /*    public void transform(LittleAbsolutePreviews previews) {
         if (rotX != 0) {
             Rotation rotation = getRotation(Axis.X);
@@ -1,41 +1,160 @@
 package me.creepinson.creepinoutils.api.util.math.graph;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * A curve through points, evaluated for any x.
+ * The points are kept as sorted x and y arrays so finding the points around an x is a binary search,
+ * and a {@link Cursor} makes evaluating increasing (or decreasing) x values, like once per tick, constant time.
+ * <br>
+ * Graphs are immutable, the map constructor copies the points once.
+ */
 public abstract class Graph {
 
+    /**
+     * @deprecated a copy of the points the graph was built from, changing it does not change the graph, use {@link #getPoints()}
+     */
+    @Deprecated
     public final HashMap<Float, Float> points;
+    protected final float[] xs;
+    protected final float[] ys;
 
     public Graph(HashMap<Float, Float> points) {
-        this.points = points;
+        this.points = new HashMap<>(points);
+        this.xs = new float[points.size()];
+        this.ys = new float[points.size()];
+        int i = 0;
+        for (Float x : points.keySet()) {
+            xs[i++] = x;
+        }
+        Arrays.sort(xs);
+        for (i = 0; i < xs.length; i++) {
+            ys[i] = points.get(xs[i]);
+        }
     }
 
-    public Float getPreviousPointX(float below) {
-        Float next = null;
-        for (Float point : points.keySet()) {
-            if (point <= below && (next == null || point > next))
-                next = point;
+    /**
+     * @param xs strictly ascending x values
+     * @param ys the y value of every x
+     */
+    public Graph(float[] xs, float[] ys) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("Got " + xs.length + " x and " + ys.length + " y values");
+        for (int i = 1; i < xs.length; i++) {
+            if (!(xs[i - 1] < xs[i]))
+                throw new IllegalArgumentException("x values have to be strictly ascending, " + xs[i - 1] + " is followed by " + xs[i]);
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.points = new HashMap<>();
+        for (int i = 0; i < xs.length; i++) {
+            points.put(xs[i], ys[i]);
         }
-        return next;
     }
 
-    public Float getNextPointX(float above) {
-        Float next = null;
-        for (Float point : points.keySet()) {
-            if (point >= above && (next == null || point < next))
-                next = point;
+    /**
+     * @return every point of the graph in ascending x order, read only
+     */
+    public Map<Float, Float> getPoints() {
+        Map<Float, Float> points = new LinkedHashMap<>();
+        for (int i = 0; i < xs.length; i++) {
+            points.put(xs[i], ys[i]);
         }
-        return next;
+        return Collections.unmodifiableMap(points);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * @return the index of the last point at or before x, -1 if there is none
+     */
+    public int floorIndex(float x) {
+        int low = 0, high = xs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    public Float getPreviousPointX(float below) {
+        int index = floorIndex(below);
+        return index < 0 ? null : xs[index];
+    }
+
+    public Float getNextPointX(float above) {
+        int index = floorIndex(above);
+        if (index >= 0 && xs[index] == above)
+            return above;
+        return index + 1 < xs.length ? xs[index + 1] : null;
     }
 
     public float getLastPointX() {
-        return getPreviousPointX(Float.MAX_VALUE);
+        return xs[xs.length - 1];
     }
 
     public float getFirstPointX() {
-        return getNextPointX(Float.MIN_VALUE);
+        return xs[0];
+    }
+
+    public float getY(float x) {
+        return getY(floorIndex(x), x);
+    }
+
+    /**
+     * evaluate every x at once, sorted xs are the fastest
+     *
+     * @param out receives the y of every x, needs at least as many entries as xs
+     */
+    public void getY(float[] xs, float[] out) {
+        if (out.length < xs.length)
+            throw new IllegalArgumentException("Output needs " + xs.length + " entries but has " + out.length);
+        Cursor cursor = cursor();
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = cursor.getY(xs[i]);
+        }
+    }
+
+    /**
+     * @param floor the index of the last point at or before x, -1 if x is before every point
+     */
+    protected abstract float getY(int floor, float x);
+
+    public Cursor cursor() {
+        return new Cursor();
     }
 
-    public abstract float getY(float x);
+    /**
+     * Remembers the segment of the last x, the next x is looked up from there.
+     * Moving to a neighbouring segment is constant time, anything further falls back to a binary search.
+     */
+    public class Cursor {
+        private int floor = -1;
+
+        public float getY(float x) {
+            int f = floor;
+            if (f + 1 < xs.length && xs[f + 1] <= x) {
+                f = f + 2 >= xs.length || xs[f + 2] > x ? f + 1 : floorIndex(x);
+            } else if (f >= 0 && xs[f] > x) {
+                f = f == 0 || xs[f - 1] <= x ? f - 1 : floorIndex(x);
+            }
+            floor = f;
+            return Graph.this.getY(f, x);
+        }
+
+        public void reset() {
+            floor = -1;
+        }
+    }
 
 }
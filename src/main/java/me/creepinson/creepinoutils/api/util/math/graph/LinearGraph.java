@@ -8,25 +8,20 @@ public class LinearGraph extends Graph {
         super(points);
     }
 
+    public LinearGraph(float[] xs, float[] ys) {
+        super(xs, ys);
+    }
+
     @Override
-    public float getY(float x) {
-        Float pointBefore = getPreviousPointX(x);
-        Float pointAfter = getNextPointX(x);
-        if (pointBefore != null && pointAfter != null) {
-            if (pointBefore == pointAfter)
-                return points.get(pointBefore);
-            float distance = pointAfter - pointBefore;
-            float relativePos = x - pointBefore;
-            float percentage = relativePos / distance;
-            float pointBeforeY = points.get(pointBefore);
-            float distanceY = points.get(pointAfter) - pointBeforeY;
-            return pointBeforeY + distanceY * percentage;
-        }
-        if (pointBefore != null)
-            return points.get(pointBefore);
-        if (pointAfter != null)
-            return points.get(pointAfter);
-        return 0;
+    protected float getY(int floor, float x) {
+        if (xs.length == 0)
+            return 0;
+        if (floor < 0)
+            return ys[0];
+        if (floor == xs.length - 1 || xs[floor] == x)
+            return ys[floor];
+        float percentage = (x - xs[floor]) / (xs[floor + 1] - xs[floor]);
+        return ys[floor] + (ys[floor + 1] - ys[floor]) * percentage;
     }
 
 }
@@ -10,23 +10,30 @@ public class CubicInterpolation extends Interpolation {
 
     public CubicInterpolation(double[] times, Vector3[] points) {
         super(times, points);
-        beginVec = (Vector3) points[0].add(points[0].sub(points[1]));
-        endVec = (Vector3) points[points.length - 1].add(points[points.length - 1].sub(points[points.length - 2]));
+        beginVec = extrapolate(pointVecs[0], pointVecs[1]);
+        endVec = extrapolate(pointVecs[pointVecs.length - 1], pointVecs[pointVecs.length - 2]);
     }
 
     public CubicInterpolation(Vector3... points) {
         super(points);
-        beginVec = (Vector3) points[0].add(points[0].sub(points[1]));
-        endVec = (Vector3) points[points.length - 1].add(points[points.length - 1].sub(points[points.length - 2]));
+        beginVec = extrapolate(pointVecs[0], pointVecs[1]);
+        endVec = extrapolate(pointVecs[pointVecs.length - 1], pointVecs[pointVecs.length - 2]);
+    }
+
+    /**
+     * @return edge + (edge - inner) without touching either, {@link Vector3#add(Vector3)} and {@link Vector3#sub(Vector3)} work in place
+     */
+    private static Vector3 extrapolate(Vector3 edge, Vector3 inner) {
+        return ((Vector3) edge.clone()).mul(2).sub(inner);
     }
 
     @Override
     protected double getValue(int index, int dim) {
         if (index < 0)
             return beginVec.getValueByDim(dim);
-        if (index >= points.size())
+        if (index >= times.length)
             return endVec.getValueByDim(dim);
-        return pointVecs.get(index).getValueByDim(dim);
+        return values[index * 3 + dim];
     }
 
     @Override
@@ -2,16 +2,25 @@ package me.creepinson.creepinoutils.api.util.math.interpolation;
 
 import me.creepinson.creepinoutils.api.util.math.Vector3;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map.Entry;
-
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Interpolates between points placed at times from 0 to 1.
+ * The points are compiled once into a sorted array of times and a flat x, y, z array of values,
+ * so finding the segment of a time is a binary search and {@link #valueAt(double, float[])} allocates nothing.
+ */
 public abstract class Interpolation {
 
-    protected LinkedHashMap<Double, Vector3> points = new LinkedHashMap<>();
-    protected ArrayList<Vector3> pointVecs = new ArrayList<>();
-    private final Class classOfT;
+    /**
+     * time of every point, ascending
+     */
+    protected final double[] times;
+    /**
+     * x, y and z of every point one after the other, in the order of {@link #times}
+     */
+    protected final double[] values;
+    protected final Vector3[] pointVecs;
 
     public Interpolation(double[] times, Vector3[] points) {
         if (points.length < 2)
@@ -20,29 +29,49 @@ public abstract class Interpolation {
         if (times.length != points.length)
             throw new IllegalArgumentException("Invalid times array!");
 
-        classOfT = points[0].getClass();
-        for (int i = 0; i < points.length; i++) {
-            this.points.put(times[i], points[i]);
+        Integer[] order = new Integer[points.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
         }
-        pointVecs = new ArrayList<>(this.points.values());
+        Arrays.sort(order, Comparator.comparingDouble(i -> times[i]));
+        this.times = new double[points.length];
+        this.pointVecs = new Vector3[points.length];
+        for (int i = 0; i < order.length; i++) {
+            this.times[i] = times[order[i]];
+            this.pointVecs[i] = points[order[i]];
+        }
+        this.values = flatten(pointVecs);
     }
 
     public Interpolation(Vector3... points) {
         if (points.length < 2)
             throw new IllegalArgumentException("At least two points are needed!");
 
-        classOfT = points[0].getClass();
-        double time = 0;
+        this.times = new double[points.length];
         double stepLength = 1D / (points.length - 1);
         for (int i = 0; i < points.length; i++) {
-            this.points.put(time, points[i]);
-            time += stepLength;
+            this.times[i] = i * stepLength;
         }
-        pointVecs = new ArrayList<>(this.points.values());
+        this.pointVecs = points.clone();
+        this.values = flatten(pointVecs);
+    }
+
+    private static double[] flatten(Vector3[] points) {
+        double[] values = new double[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            values[i * 3] = points[i].x;
+            values[i * 3 + 1] = points[i].y;
+            values[i * 3 + 2] = points[i].z;
+        }
+        return values;
+    }
+
+    public int size() {
+        return times.length;
     }
 
     protected double getValue(int index, int dim) {
-        return pointVecs.get(index).getValueByDim(dim);
+        return values[index * 3 + dim];
     }
 
     /**
@@ -50,46 +79,78 @@ public abstract class Interpolation {
      **/
     public Vector3 valueAt(double t) {
         if (t >= 0 && t <= 1) {
-            Entry<Double, Vector3> firstPoint = null;
-            int indexFirst = -1;
-            Entry<Double, Vector3> secondPoint = null;
-            int indexSecond = -1;
-
-            int i = 0;
-            for (Iterator<Entry<Double, Vector3>> iterator = points.entrySet().iterator(); iterator.hasNext(); ) {
-                Entry<Double, Vector3> entry = iterator.next();
-                if (entry.getKey() >= t) {
-                    if (firstPoint == null) {
-                        firstPoint = entry;
-                        indexFirst = i;
-                    } else {
-                        secondPoint = entry;
-                        indexSecond = i;
-                    }
-                    break;
-                }
-
-                firstPoint = entry;
-                indexFirst = i;
-
-                i++;
-            }
+            int second = segment(t);
+            if (second == 0)
+                return (Vector3) pointVecs[0].clone();
+            if (second == times.length)
+                return (Vector3) pointVecs[times.length - 1].clone();
+
+            Vector3 vec = (Vector3) pointVecs[second - 1].clone();
+            double mu = (t - times[second - 1]) / (times[second] - times[second - 1]);
+            vec.x = valueAt(mu, second - 1, second, 0);
+            vec.y = valueAt(mu, second - 1, second, 1);
+            vec.z = valueAt(mu, second - 1, second, 2);
+            return vec;
+        }
+        return new Vector3();
+    }
 
-            if (secondPoint == null)
-                return (Vector3) firstPoint.getValue().clone();
+    /**
+     * same as {@link #valueAt(double)} but writes x, y and z into out instead of allocating a vector
+     *
+     * @return out
+     */
+    public float[] valueAt(double t, float[] out) {
+        write(t, out, 0);
+        return out;
+    }
 
-            Vector3 vec = (Vector3) firstPoint.getValue().clone();
+    /**
+     * evaluate many times at once, for drawing a curve or moving along it
+     *
+     * @param out receives x, y and z of every time one after the other, needs at least three times as many entries as ts
+     */
+    public void sample(double[] ts, float[] out) {
+        if (out.length < ts.length * 3)
+            throw new IllegalArgumentException("Output needs " + ts.length * 3 + " entries but has " + out.length);
+        for (int i = 0; i < ts.length; i++) {
+            write(ts[i], out, i * 3);
+        }
+    }
 
-            double pointDistance = secondPoint.getKey() - firstPoint.getKey();
-            double mu = (t - firstPoint.getKey()) / pointDistance;
+    private void write(double t, float[] out, int offset) {
+        if (!(t >= 0 && t <= 1)) {
+            out[offset] = out[offset + 1] = out[offset + 2] = 0;
+            return;
+        }
+        int second = segment(t);
+        if (second == 0 || second == times.length) {
+            int index = second == 0 ? 0 : times.length - 1;
+            out[offset] = (float) values[index * 3];
+            out[offset + 1] = (float) values[index * 3 + 1];
+            out[offset + 2] = (float) values[index * 3 + 2];
+            return;
+        }
+        double mu = (t - times[second - 1]) / (times[second] - times[second - 1]);
+        for (int dim = 0; dim < 3; dim++) {
+            out[offset + dim] = valueAt(mu, second - 1, second, dim);
+        }
+    }
 
-            for (int dim = 0; dim < 3; dim++) {
-                vec.setValueByDim(dim, valueAt(mu, indexFirst, indexSecond, dim));
+    /**
+     * @return the index of the first point at or after t, {@link #times} length if there is none
+     */
+    protected int segment(double t) {
+        int low = 0, high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < t) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-
-            return vec;
         }
-        return new Vector3();
+        return low;
     }
 
     public abstract float valueAt(double mu, int pointIndex, int pointIndexNext, int dim);
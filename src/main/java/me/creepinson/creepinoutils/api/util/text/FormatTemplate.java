@@ -0,0 +1,128 @@
+package me.creepinson.creepinoutils.api.util.text;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * A format string parsed once, so formatting it only splices the arguments between the literal parts.
+ * Understands %s, %d, %%, %n and their explicitly indexed forms like %2$s, which is what translations use.
+ * Any other conversion (widths, precisions, %f...) leaves the whole template to {@link String#format(String, Object...)}.
+ */
+public class FormatTemplate {
+    private static final char STRING = 's', INTEGER = 'd';
+
+    private final String pattern;
+    /**
+     * the literal text before every argument and after the last one
+     */
+    private final String[] literals;
+    private final int[] argumentIndices;
+    private final char[] conversions;
+    private final int literalLength;
+    private final boolean fallback;
+
+    public FormatTemplate(String pattern) {
+        this.pattern = pattern;
+        List<String> literals = new ArrayList<>();
+        List<int[]> arguments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean fallback = false;
+        int nextIndex = 0;
+        int i = 0;
+        while (i < pattern.length() && !fallback) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            int explicit = -1;
+            int digits = end;
+            while (digits < pattern.length() && Character.isDigit(pattern.charAt(digits))) {
+                digits++;
+            }
+            if (digits > end && digits < pattern.length() && pattern.charAt(digits) == '$') {
+                if (digits - end > 4 || pattern.charAt(end) == '0') {
+                    fallback = true;
+                    break;
+                }
+                explicit = Integer.parseInt(pattern.substring(end, digits)) - 1;
+                end = digits + 1;
+            }
+            if (end >= pattern.length()) {
+                fallback = true;
+                break;
+            }
+            char conversion = pattern.charAt(end);
+            if (explicit == -1 && conversion == '%') {
+                literal.append('%');
+            } else if (explicit == -1 && conversion == 'n') {
+                literal.append(System.lineSeparator());
+            } else if (conversion == STRING || conversion == INTEGER) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                arguments.add(new int[]{explicit == -1 ? nextIndex++ : explicit, conversion});
+            } else {
+                fallback = true;
+            }
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+
+        this.fallback = fallback;
+        this.literals = literals.toArray(new String[0]);
+        this.argumentIndices = new int[arguments.size()];
+        this.conversions = new char[arguments.size()];
+        for (int j = 0; j < arguments.size(); j++) {
+            argumentIndices[j] = arguments.get(j)[0];
+            conversions[j] = (char) arguments.get(j)[1];
+        }
+        int length = 0;
+        for (String part : this.literals) {
+            length += part.length();
+        }
+        this.literalLength = length;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @throws java.util.IllegalFormatException like {@link String#format(String, Object...)} when an argument is missing or does not fit
+     */
+    public String format(Object... args) {
+        if (fallback)
+            return String.format(pattern, args);
+        if (argumentIndices.length == 0)
+            return literals[0];
+        StringBuilder builder = new StringBuilder(literalLength + argumentIndices.length * 8);
+        for (int i = 0; i < argumentIndices.length; i++) {
+            builder.append(literals[i]);
+            int index = argumentIndices[i];
+            if (args != null && index >= args.length)
+                throw new MissingFormatArgumentException("%" + (index + 1) + "$" + conversions[i]);
+            Object arg = args == null ? null : args[index];
+            if (conversions[i] == INTEGER) {
+                if (arg != null && !(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte || arg instanceof BigInteger))
+                    return String.format(pattern, args);
+                builder.append(arg);
+            } else if (arg instanceof Formattable) {
+                return String.format(pattern, args);
+            } else {
+                builder.append(arg);
+            }
+        }
+        builder.append(literals[literals.length - 1]);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,27 @@
+package me.creepinson.creepinoutils.api.util.text;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.client.resources.IResourceManagerReloadListener;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Drops the {@link LangUtils} caches whenever the client reloads its resources, which is what switching the language
+ * or the resource packs does.
+ */
+@SideOnly(Side.CLIENT)
+public enum LangReloadListener implements IResourceManagerReloadListener {
+
+    INSTANCE;
+
+    public static void register() {
+        ((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager()).registerReloadListener(INSTANCE);
+    }
+
+    @Override
+    public void onResourceManagerReload(IResourceManager resourceManager) {
+        LangUtils.invalidateCache();
+    }
+}
@@ -7,8 +7,15 @@ import net.minecraft.util.text.translation.I18n;
 import net.minecraftforge.fluids.FluidStack;
 
 import java.util.IllegalFormatException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class LangUtils {
+    private static final Map<String, String> TRANSLATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, FormatTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private static long hits;
+    private static long misses;
 
     public static String transOnOff(boolean b) {
         return LangUtils.localize(transOnOffKey(b));
@@ -32,12 +39,21 @@ public final class LangUtils {
 
     /**
      * Localizes the defined string.
+     * Translations are cached for the current language until {@link #invalidateCache()}.
      *
      * @param s - string to localized
      * @return localized string
      */
     public static String localize(String s) {
-        return I18n.translateToLocal(s);
+        String translated = TRANSLATIONS.get(s);
+        if (translated == null) {
+            misses++;
+            translated = I18n.translateToLocal(s);
+            TRANSLATIONS.put(s.intern(), translated);
+        } else {
+            hits++;
+        }
+        return translated;
     }
 
     public static boolean canLocalize(String s) {
@@ -45,14 +61,45 @@ public final class LangUtils {
     }
 
     public static String localizeWithFormat(String key, Object... format) {
-        String s = localize(key);
+        FormatTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            template = new FormatTemplate(localize(key));
+            TEMPLATES.put(key.intern(), template);
+        }
         try {
-            return String.format(s, format);
+            return template.format(format);
         } catch (IllegalFormatException e) {
-            return "Format error: " + s;
+            return "Format error: " + template.getPattern();
         }
     }
 
+    /**
+     * Forget every cached translation and format template, the language or the resource packs changed.
+     * Called by {@link LangReloadListener} on the client.
+     */
+    public static void invalidateCache() {
+        TRANSLATIONS.clear();
+        TEMPLATES.clear();
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public static void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
     public static TextComponentTranslation translationWithColour(String langKey, TextFormatting color) {
         TextComponentTranslation translation = new TextComponentTranslation(langKey);
         translation.getStyle().setColor(color);
@@ -1,52 +1,39 @@
 package me.creepinson.creepinoutils.api.util.transformer;
 
-import net.minecraft.launchwrapper.IClassTransformer;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
+import me.creepinson.creepinoutils.asm.PatchingTransformer;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
-public class CoreTransformer implements IClassTransformer {
+public class CoreTransformer extends PatchingTransformer {
 
-    @Override
-    public byte[] transform(String name, String transformedName, byte[] basicClass) {
-        boolean obfuscated = CoreLoader.isObfuscated;
-
-        if (name.equals(obfuscated ? "chd" : "net.minecraft.server.integrated.IntegratedServer")) {
-            Logger log = LogManager.getLogger("Default LAN Port");
-            log.info("Found class \"IntegratedServer\"");
+    public CoreTransformer() {
+        super(CoreLoader.MOD_NAME, "1", 0);
+        // storing the port into its own local keeps the existing frames valid so only maxs need computing
+        registerPatch("net.minecraft.server.integrated.IntegratedServer", false, this::patchIntegratedServer);
+    }
 
-            ClassNode classNode = new ClassNode();
-            ClassReader classReader = new ClassReader(basicClass);
-            classReader.accept(classNode, 0);
+    private void patchIntegratedServer(ClassNode classNode) {
+        boolean obfuscated = CoreLoader.isObfuscated;
+        logger.info("Found class \"IntegratedServer\"");
 
-            for (MethodNode method : classNode.methods) {
-                if (method.name.equals(obfuscated ? "a" : "shareToLAN") &&
-                        method.desc.equals(obfuscated ? "(Lams;Z)Ljava/lang/String;" : "(Lnet/minecraft/world/GameType;Z)Ljava/lang/String;")) {
+        for (MethodNode method : classNode.methods) {
+            if (method.name.equals(obfuscated ? "a" : "shareToLAN") &&
+                    method.desc.equals(obfuscated ? "(Lams;Z)Ljava/lang/String;" : "(Lnet/minecraft/world/GameType;Z)Ljava/lang/String;")) {
 
-                    log.info("Found method \"shareToLAN\"");
-                    for (AbstractInsnNode instruction : method.instructions.toArray()) {
-                        if (instruction.getOpcode() == Opcodes.ALOAD) {
-                            log.info("Found ALOAD");
+                logger.info("Found method \"shareToLAN\"");
+                for (AbstractInsnNode instruction : method.instructions.toArray()) {
+                    if (instruction.getOpcode() == Opcodes.ALOAD) {
+                        logger.info("Found ALOAD");
 
-                            InsnList toInsert = new InsnList();
-                            toInsert.add(new IntInsnNode(Opcodes.SIPUSH, 25565));
-                            toInsert.add(new VarInsnNode(Opcodes.ISTORE, 3));
+                        InsnList toInsert = new InsnList();
+                        toInsert.add(new IntInsnNode(Opcodes.SIPUSH, 25565));
+                        toInsert.add(new VarInsnNode(Opcodes.ISTORE, 3));
 
-                            method.instructions.insertBefore(instruction, toInsert);
-                            break;
-                        }
+                        method.instructions.insertBefore(instruction, toInsert);
+                        break;
                     }
                 }
             }
-
-            ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-            classNode.accept(classWriter);
-            return classWriter.toByteArray();
         }
-
-        return basicClass;
     }
 }
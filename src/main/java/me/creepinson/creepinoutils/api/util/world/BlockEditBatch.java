@@ -0,0 +1,267 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import me.creepinson.creepinoutils.api.network.path.HierarchicalPathfinder;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.*;
+
+/**
+ * Collects block changes and applies them all at once, chunk by chunk.
+ * States are written straight into the chunk sections, then the side effects {@link World#setBlockState(BlockPos, IBlockState)}
+ * would run per block are done once for the whole batch:
+ * every neighbour of the batch is notified once, light is only checked where it can change,
+ * and each chunk sends a single multi block change packet.
+ * <br>
+ * Edits in chunks that are not loaded are dropped, the batch never loads chunks.
+ */
+public class BlockEditBatch {
+    /**
+     * notify the blocks around the batch once it is applied, same bit as in {@link World#setBlockState(BlockPos, IBlockState, int)}
+     */
+    public static final int NOTIFY_NEIGHBORS = 1;
+    /**
+     * send the changes to the players watching the chunks, same bit as in {@link World#setBlockState(BlockPos, IBlockState, int)}
+     */
+    public static final int SEND_TO_CLIENTS = 2;
+    /**
+     * rebuild the sky light of the changed chunks, relight both kinds of light where opacity changed and block light where only the light value did
+     */
+    public static final int UPDATE_LIGHT = 4;
+    public static final int DEFAULT_FLAGS = NOTIFY_NEIGHBORS | SEND_TO_CLIENTS | UPDATE_LIGHT;
+
+    private final World world;
+    private final int flags;
+    private final Map<Long, Map<Long, IBlockState>> edits = new LinkedHashMap<>();
+    private int size;
+
+    private int applied;
+    private int notified;
+    private int lightChecks;
+    private int packets;
+
+    public BlockEditBatch(World world) {
+        this(world, DEFAULT_FLAGS);
+    }
+
+    public BlockEditBatch(World world, int flags) {
+        this.world = world;
+        this.flags = flags;
+    }
+
+    /**
+     * queue a change, a later change of the same position replaces it
+     */
+    public void set(BlockPos pos, IBlockState state) {
+        if (pos.getY() < 0 || pos.getY() >= world.getHeight())
+            return;
+        long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Map<Long, IBlockState> chunkEdits = edits.get(chunk);
+        if (chunkEdits == null) {
+            chunkEdits = new LinkedHashMap<>();
+            edits.put(chunk, chunkEdits);
+        }
+        if (chunkEdits.put(pos.toLong(), state) == null) {
+            size++;
+        }
+    }
+
+    public void setAir(BlockPos pos) {
+        set(pos, Blocks.AIR.getDefaultState());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * write every queued change and run the deferred side effects, the batch is empty afterwards
+     *
+     * @return how many blocks actually changed
+     */
+    public int apply() {
+        Set<Long> changed = new LinkedHashSet<>();
+        Map<Long, Block> oldBlocks = new HashMap<>();
+        Set<Long> lightChanged = new LinkedHashSet<>();
+        Set<Long> opacityChanged = new HashSet<>();
+
+        for (Map.Entry<Long, Map<Long, IBlockState>> chunkEdits : edits.entrySet()) {
+            long key = chunkEdits.getKey();
+            int chunkX = (int) key, chunkZ = (int) (key >> 32);
+            Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+            if (chunk == null)
+                continue;
+            List<BlockPos> chunkChanged = new ArrayList<>();
+            ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+            for (Map.Entry<Long, IBlockState> edit : chunkEdits.getValue().entrySet()) {
+                BlockPos pos = BlockPos.fromLong(edit.getKey());
+                IBlockState state = edit.getValue();
+                int sectionY = pos.getY() >> 4;
+                ExtendedBlockStorage section = sections[sectionY];
+                if (section == Chunk.NULL_BLOCK_STORAGE) {
+                    if (state.getBlock() == Blocks.AIR)
+                        continue;
+                    section = new ExtendedBlockStorage(sectionY << 4, world.provider.hasSkyLight());
+                    sections[sectionY] = section;
+                }
+                IBlockState old = section.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+                if (old == state)
+                    continue;
+                if (!world.isRemote && old.getBlock() != state.getBlock()) {
+                    // same as Chunk#setBlockState, containers drop their contents here
+                    old.getBlock().breakBlock(world, pos, old);
+                }
+                TileEntity tile = old.getBlock().hasTileEntity(old) ? chunk.getTileEntity(pos, Chunk.EnumCreateEntityType.CHECK) : null;
+                if (tile != null && tile.shouldRefresh(world, pos, old, state)) {
+                    // like Chunk#setBlockState, a state change the tile entity survives (facing, powered...) keeps its data
+                    world.removeTileEntity(pos);
+                    tile = null;
+                }
+                section.set(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state);
+                if (tile != null) {
+                    tile.updateContainingBlockInfo();
+                }
+                if (!world.isRemote && old.getBlock() != state.getBlock()) {
+                    state.getBlock().onBlockAdded(world, pos, state);
+                }
+                chunkChanged.add(pos);
+                changed.add(edit.getKey());
+                oldBlocks.put(edit.getKey(), old.getBlock());
+                if (old.getLightOpacity(world, pos) != state.getLightOpacity(world, pos)) {
+                    lightChanged.add(edit.getKey());
+                    opacityChanged.add(edit.getKey());
+                } else if (old.getLightValue(world, pos) != state.getLightValue(world, pos)) {
+                    lightChanged.add(edit.getKey());
+                }
+            }
+            if (chunkChanged.isEmpty())
+                continue;
+            chunk.markDirty();
+            if ((flags & UPDATE_LIGHT) != 0) {
+                chunk.generateSkylightMap();
+            }
+            if ((flags & SEND_TO_CLIENTS) != 0) {
+                sendChanges(chunk, chunkChanged);
+            }
+            if (world.isRemote) {
+                markForRender(chunkChanged);
+            }
+        }
+        edits.clear();
+        size = 0;
+        if (!changed.isEmpty()) {
+            // the batch bypasses setBlockState and its neighbour events, so cached power answers and paths can be anywhere in it
+            RedstonePowerCache.invalidateAll(world);
+            HierarchicalPathfinder.invalidate(world, changed);
+        }
+
+        if ((flags & UPDATE_LIGHT) != 0) {
+            for (long pos : lightChanged) {
+                if (opacityChanged.contains(pos)) {
+                    // generateSkylightMap only redoes the columns, sky light still has to spread sideways and around new opaque blocks
+                    world.checkLight(BlockPos.fromLong(pos));
+                } else {
+                    world.checkLightFor(EnumSkyBlock.BLOCK, BlockPos.fromLong(pos));
+                }
+                lightChecks++;
+            }
+        }
+        if ((flags & NOTIFY_NEIGHBORS) != 0) {
+            notifyNeighbors(changed, oldBlocks);
+        }
+        applied += changed.size();
+        return changed.size();
+    }
+
+    /**
+     * every block next to the batch but not part of it gets one neighbour change, from the first changed block it touches
+     */
+    private void notifyNeighbors(Set<Long> changed, Map<Long, Block> oldBlocks) {
+        Map<Long, Long> targets = new LinkedHashMap<>();
+        for (long changedPos : changed) {
+            BlockPos pos = BlockPos.fromLong(changedPos);
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                long neighbor = pos.offset(facing).toLong();
+                if (!changed.contains(neighbor) && !targets.containsKey(neighbor)) {
+                    targets.put(neighbor, changedPos);
+                }
+            }
+        }
+        for (Map.Entry<Long, Long> target : targets.entrySet()) {
+            BlockPos pos = BlockPos.fromLong(target.getKey());
+            if (world.isBlockLoaded(pos)) {
+                world.neighborChanged(pos, oldBlocks.get(target.getValue()), BlockPos.fromLong(target.getValue()));
+                notified++;
+            }
+        }
+    }
+
+    private void sendChanges(Chunk chunk, List<BlockPos> chunkChanged) {
+        if (!(world instanceof WorldServer))
+            return;
+        PlayerChunkMapEntry entry = ((WorldServer) world).getPlayerChunkMap().getEntry(chunk.x, chunk.z);
+        if (entry == null)
+            return;
+        if (chunkChanged.size() == 1) {
+            entry.sendPacket(new SPacketBlockChange(world, chunkChanged.get(0)));
+        } else {
+            short[] offsets = new short[chunkChanged.size()];
+            for (int i = 0; i < offsets.length; i++) {
+                BlockPos pos = chunkChanged.get(i);
+                offsets[i] = (short) ((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY());
+            }
+            entry.sendPacket(new SPacketMultiBlockChange(offsets.length, offsets, chunk));
+        }
+        packets++;
+    }
+
+    private void markForRender(List<BlockPos> chunkChanged) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos pos : chunkChanged) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        world.markBlockRangeForRenderUpdate(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * blocks changed by every {@link #apply()} so far
+     */
+    public int getApplied() {
+        return applied;
+    }
+
+    public int getNeighborsNotified() {
+        return notified;
+    }
+
+    public int getLightChecks() {
+        return lightChecks;
+    }
+
+    public int getPacketsSent() {
+        return packets;
+    }
+}
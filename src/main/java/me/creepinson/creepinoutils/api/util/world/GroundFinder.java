@@ -0,0 +1,84 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Arrays;
+
+/**
+ * Finds the highest non air block of columns.
+ * The chunk heightmap already knows the highest light blocking block of every column, so only the few blocks above it
+ * (glass, leaves, torches...) are read, and sections holding nothing but air are jumped over whole.
+ * <br>
+ * Like {@link World#getChunk(int, int)} the chunks of the columns are loaded if they are not.
+ */
+public class GroundFinder {
+
+    /**
+     * @return the y of the highest non air block of the column, -1 if the column is empty
+     */
+    public static int getGroundY(World world, int x, int z) {
+        return getGroundY(world.getChunk(x >> 4, z >> 4), x & 15, z & 15);
+    }
+
+    /**
+     * @return the highest non air block of the column or null if the column is empty
+     */
+    public static BlockPos getGround(World world, int x, int z) {
+        int y = getGroundY(world, x, z);
+        return y < 0 ? null : new BlockPos(x, y, z);
+    }
+
+    /**
+     * answer many columns at once, every chunk is looked up once no matter how many of the columns are in it
+     *
+     * @return the ground y of every column in the order given, -1 for empty columns
+     */
+    public static int[] getGroundY(World world, int[] xs, int[] zs) {
+        if (xs.length != zs.length)
+            throw new IllegalArgumentException("Got " + xs.length + " x and " + zs.length + " z coordinates");
+        int[] result = new int[xs.length];
+        // sort the columns by chunk, the low 32 bits keep the index of the column
+        long[] order = new long[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            long chunkKey = ((xs[i] >> 4) & 0xFFFFL) << 16 | ((zs[i] >> 4) & 0xFFFFL);
+            order[i] = chunkKey << 32 | i;
+        }
+        Arrays.sort(order);
+        Chunk chunk = null;
+        for (long entry : order) {
+            int i = (int) entry;
+            int chunkX = xs[i] >> 4, chunkZ = zs[i] >> 4;
+            if (chunk == null || chunk.x != chunkX || chunk.z != chunkZ) {
+                chunk = world.getChunk(chunkX, chunkZ);
+            }
+            result[i] = getGroundY(chunk, xs[i] & 15, zs[i] & 15);
+        }
+        return result;
+    }
+
+    /**
+     * @param x the x inside the chunk
+     * @param z the z inside the chunk
+     */
+    public static int getGroundY(Chunk chunk, int x, int z) {
+        // the heightmap holds the y above the highest light blocking block, which can only be covered by see-through blocks
+        int floor = chunk.getHeightValue(x, z) - 1;
+        ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        int y = chunk.getTopFilledSegment() + 15;
+        while (y > floor) {
+            ExtendedBlockStorage section = sections[y >> 4];
+            if (section == Chunk.NULL_BLOCK_STORAGE || section.isEmpty()) {
+                y = (y & ~15) - 1;
+                continue;
+            }
+            if (section.get(x, y & 15, z).getBlock() != Blocks.AIR)
+                return y;
+            y--;
+        }
+        return floor;
+    }
+}
@@ -0,0 +1,146 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+/**
+ * Collects the neighbour notifications of a tick and delivers them at its end.
+ * A position notified several times in a tick from the same source is only notified once, the kinds of notification requested for it are merged,
+ * notifications from different sources are all kept since comparators, observers and per side caches look at where they come from.
+ * The pass runs in sorted target order so updates of one area stay together.
+ * <br>
+ * Notifications raised while the queue is delivered are kept for the next tick.
+ * Worlds without a server tick (client worlds) are notified right away.
+ */
+@Mod.EventBusSubscriber
+public class NeighborNotificationQueue {
+    /**
+     * {@link IBlockState#neighborChanged(World, BlockPos, net.minecraft.block.Block, BlockPos)}
+     */
+    public static final int NEIGHBOR_CHANGED = 1;
+    /**
+     * {@link net.minecraft.block.Block#onNeighborChange(net.minecraft.world.IBlockAccess, BlockPos, BlockPos)}, the tile entity aware one
+     */
+    public static final int ON_NEIGHBOR_CHANGE = 2;
+    /**
+     * {@link World#notifyBlockUpdate(BlockPos, IBlockState, IBlockState, int)} with flag 2, resends the block to clients
+     */
+    public static final int BLOCK_UPDATE = 4;
+
+    /**
+     * per world, the sources every target was notified from and the kinds of notification for each of them
+     */
+    private static final Map<World, Map<Long, Map<Long, Integer>>> QUEUES = new WeakHashMap<>();
+
+    private static long enqueued;
+    private static long deduplicated;
+    private static long delivered;
+
+    /**
+     * queue a notification of target, coming from the block at from
+     *
+     * @param kinds a combination of {@link #NEIGHBOR_CHANGED}, {@link #ON_NEIGHBOR_CHANGE} and {@link #BLOCK_UPDATE}
+     */
+    public static void enqueue(World world, BlockPos target, BlockPos from, int kinds) {
+        enqueued++;
+        if (world.isRemote) {
+            deliver(world, target, from, kinds);
+            return;
+        }
+        Map<Long, Map<Long, Integer>> queue = QUEUES.get(world);
+        if (queue == null) {
+            queue = new HashMap<>();
+            QUEUES.put(world, queue);
+        }
+        Map<Long, Integer> sources = queue.get(target.toLong());
+        if (sources == null) {
+            sources = new LinkedHashMap<>(2);
+            queue.put(target.toLong(), sources);
+        }
+        Integer queued = sources.put(from.toLong(), kinds);
+        if (queued != null) {
+            sources.put(from.toLong(), queued | kinds);
+            deduplicated++;
+        }
+    }
+
+    /**
+     * deliver everything queued for the world now
+     */
+    public static void flush(World world) {
+        Map<Long, Map<Long, Integer>> queue = QUEUES.remove(world);
+        if (queue == null || queue.isEmpty())
+            return;
+        long[] targets = new long[queue.size()];
+        int i = 0;
+        for (long target : queue.keySet()) {
+            targets[i++] = target;
+        }
+        Arrays.sort(targets);
+        for (long target : targets) {
+            BlockPos pos = BlockPos.fromLong(target);
+            for (Map.Entry<Long, Integer> source : queue.get(target).entrySet()) {
+                deliver(world, pos, BlockPos.fromLong(source.getKey()), source.getValue());
+            }
+        }
+    }
+
+    /**
+     * run the notifications right away, skipping targets in chunks that are not loaded
+     */
+    public static void deliver(World world, BlockPos target, BlockPos from, int kinds) {
+        if (!world.isBlockLoaded(target))
+            return;
+        IBlockState state = world.getBlockState(target);
+        if ((kinds & ON_NEIGHBOR_CHANGE) != 0) {
+            state.getBlock().onNeighborChange(world, target, from);
+        }
+        if ((kinds & NEIGHBOR_CHANGED) != 0) {
+            state.neighborChanged(world, target, world.getBlockState(from).getBlock(), from);
+        }
+        if ((kinds & BLOCK_UPDATE) != 0) {
+            world.notifyBlockUpdate(target, state, state, 2);
+        }
+        delivered++;
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            flush(event.world);
+        }
+    }
+
+    /**
+     * notifications asked for, including the ones merged into an earlier one
+     */
+    public static long getEnqueued() {
+        return enqueued;
+    }
+
+    /**
+     * notifications merged into one already queued for the same target and source
+     */
+    public static long getDeduplicated() {
+        return deduplicated;
+    }
+
+    /**
+     * notifications actually delivered, one per target and source
+     */
+    public static long getDelivered() {
+        return delivered;
+    }
+
+    public static void resetStats() {
+        enqueued = 0;
+        deduplicated = 0;
+        delivered = 0;
+    }
+}
@@ -0,0 +1,166 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the answers of {@link WorldUtils#isDirectlyGettingPowered} and {@link WorldUtils#isGettingPowered}
+ * for the rest of the tick, so machines polling their power every tick pay one map lookup after the first query.
+ * <br>
+ * Every world's cache is cleared when its tick starts, and a block change inside the tick forgets every position
+ * within two blocks of it, which is as far as either query reads.
+ * Client worlds have no world tick to clear them, they are never cached.
+ */
+@Mod.EventBusSubscriber
+public class RedstonePowerCache {
+    private static final byte DIRECT_KNOWN = 1, DIRECT = 2, INDIRECT_KNOWN = 4, INDIRECT = 8;
+    private static final int REACH = 2;
+
+    private static final Map<World, Map<Long, Byte>> CACHES = new WeakHashMap<>();
+
+    private static long hits;
+    private static long misses;
+
+    public static boolean isDirectlyGettingPowered(World world, BlockPos pos) {
+        if (world.isRemote)
+            return computeDirect(world, pos);
+        Map<Long, Byte> cache = getCache(world);
+        long key = pos.toLong();
+        Byte known = cache.get(key);
+        int flags = known == null ? 0 : known;
+        if ((flags & DIRECT_KNOWN) != 0) {
+            hits++;
+            return (flags & DIRECT) != 0;
+        }
+        misses++;
+        boolean powered = computeDirect(world, pos);
+        cache.put(key, (byte) (flags | DIRECT_KNOWN | (powered ? DIRECT : 0)));
+        return powered;
+    }
+
+    public static boolean isGettingPowered(World world, BlockPos pos) {
+        if (world.isRemote)
+            return computeIndirect(world, pos);
+        Map<Long, Byte> cache = getCache(world);
+        long key = pos.toLong();
+        Byte known = cache.get(key);
+        int flags = known == null ? 0 : known;
+        if ((flags & INDIRECT_KNOWN) != 0) {
+            hits++;
+            return (flags & INDIRECT) != 0;
+        }
+        misses++;
+        boolean powered = computeIndirect(world, pos);
+        // computing may have cached the direct answer of this position meanwhile
+        Byte now = cache.get(key);
+        flags = now == null ? 0 : now;
+        cache.put(key, (byte) (flags | INDIRECT_KNOWN | (powered ? INDIRECT : 0)));
+        return powered;
+    }
+
+    private static boolean computeDirect(World world, BlockPos pos) {
+        for (EnumFacing side : EnumFacing.VALUES) {
+            if (world.isBlockLoaded(pos.offset(side))) {
+                if (world.getRedstonePower(pos, side) > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean computeIndirect(World world, BlockPos pos) {
+        for (EnumFacing side : EnumFacing.VALUES) {
+            BlockPos sidePos = pos.offset(side);
+            if (world.isBlockLoaded(sidePos) && world.isBlockLoaded(sidePos.offset(side))) {
+                IBlockState blockState = world.getBlockState(sidePos);
+                boolean weakPower = blockState.getBlock().shouldCheckWeakPower(blockState, world, pos, side);
+                if (weakPower && isDirectlyGettingPowered(world, sidePos)) {
+                    return true;
+                } else if (!weakPower && blockState.getWeakPower(world, sidePos, side) > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * forget the answers of every position the block at pos can influence
+     */
+    public static void invalidate(World world, BlockPos pos) {
+        if (world.isRemote)
+            return;
+        Map<Long, Byte> cache = CACHES.get(world);
+        if (cache == null || cache.isEmpty())
+            return;
+        for (int dx = -REACH; dx <= REACH; dx++) {
+            for (int dy = -REACH + Math.abs(dx); dy <= REACH - Math.abs(dx); dy++) {
+                int rest = REACH - Math.abs(dx) - Math.abs(dy);
+                for (int dz = -rest; dz <= rest; dz++) {
+                    cache.remove(pos.add(dx, dy, dz).toLong());
+                }
+            }
+        }
+    }
+
+    public static void invalidateAll(World world) {
+        if (world.isRemote)
+            return;
+        Map<Long, Byte> cache = CACHES.get(world);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static Map<Long, Byte> getCache(World world) {
+        Map<Long, Byte> cache = CACHES.get(world);
+        if (cache == null) {
+            cache = new HashMap<>();
+            CACHES.put(world, cache);
+        }
+        return cache;
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            invalidateAll(event.world);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isRemote)
+            return;
+        invalidate(event.getWorld(), event.getPos());
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public static void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+}
@@ -0,0 +1,159 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.function.Predicate;
+
+/**
+ * Walks the block states of a box without allocating a position per block.
+ * States are read section by section straight from the loaded {@link ExtendedBlockStorage}s,
+ * empty sections are skipped as a whole and chunks that are not loaded are never loaded, they are skipped too.
+ * <br>
+ * The visitor gets the same {@link BlockPos.MutableBlockPos} for every block, call {@link BlockPos#toImmutable()} to keep it.
+ */
+public class RegionScanner {
+    private final World world;
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private boolean includeAir;
+
+    private int sectionsScanned;
+    private int sectionsSkipped;
+    private int chunksSkipped;
+
+    public RegionScanner(World world) {
+        this.world = world;
+    }
+
+    public interface IBlockVisitor {
+        /**
+         * @param pos reused for every block, only valid during the call
+         * @return false to stop the scan
+         */
+        boolean visit(BlockPos.MutableBlockPos pos, IBlockState state);
+    }
+
+    /**
+     * @param includeAir also visit air, empty sections are then walked as air instead of skipped
+     */
+    public RegionScanner setIncludeAir(boolean includeAir) {
+        this.includeAir = includeAir;
+        return this;
+    }
+
+    /**
+     * visit every loaded block within radius of center on each axis, like {@link me.creepinson.creepinoutils.api.util.CreepinoUtils#getNearbyBlocks(BlockPos, int)}
+     *
+     * @return true if the whole region was visited, false if the visitor stopped early
+     */
+    public boolean scan(BlockPos center, int radius, IBlockVisitor visitor) {
+        return scan(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius, visitor);
+    }
+
+    /**
+     * visit every loaded block between the two corners, both inclusive
+     *
+     * @return true if the whole region was visited, false if the visitor stopped early
+     */
+    public boolean scan(BlockPos from, BlockPos to, IBlockVisitor visitor) {
+        return scan(Math.min(from.getX(), to.getX()), Math.min(from.getY(), to.getY()), Math.min(from.getZ(), to.getZ()),
+                Math.max(from.getX(), to.getX()), Math.max(from.getY(), to.getY()), Math.max(from.getZ(), to.getZ()), visitor);
+    }
+
+    public boolean scan(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, IBlockVisitor visitor) {
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, world.getHeight() - 1);
+        if (minY > maxY)
+            return true;
+        IBlockState air = Blocks.AIR.getDefaultState();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    chunksSkipped++;
+                    continue;
+                }
+                int x0 = Math.max(minX, chunkX << 4), x1 = Math.min(maxX, (chunkX << 4) + 15);
+                int z0 = Math.max(minZ, chunkZ << 4), z1 = Math.min(maxZ, (chunkZ << 4) + 15);
+                ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+                    ExtendedBlockStorage section = sections[sectionY];
+                    boolean empty = section == Chunk.NULL_BLOCK_STORAGE || section.isEmpty();
+                    if (empty && !includeAir) {
+                        sectionsSkipped++;
+                        continue;
+                    }
+                    sectionsScanned++;
+                    int y0 = Math.max(minY, sectionY << 4), y1 = Math.min(maxY, (sectionY << 4) + 15);
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            for (int x = x0; x <= x1; x++) {
+                                IBlockState state = empty ? air : section.get(x & 15, y & 15, z & 15);
+                                if (!includeAir && state.getBlock() == Blocks.AIR)
+                                    continue;
+                                if (!visitor.visit(cursor.setPos(x, y, z), state))
+                                    return false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the first loaded position within radius of center whose state matches, or null
+     */
+    public BlockPos find(BlockPos center, int radius, Predicate<IBlockState> predicate) {
+        BlockPos[] found = new BlockPos[1];
+        scan(center, radius, (pos, state) -> {
+            if (predicate.test(state)) {
+                found[0] = pos.toImmutable();
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    /**
+     * @return how many loaded blocks within radius of center match
+     */
+    public int count(BlockPos center, int radius, Predicate<IBlockState> predicate) {
+        int[] count = new int[1];
+        scan(center, radius, (pos, state) -> {
+            if (predicate.test(state)) {
+                count[0]++;
+            }
+            return true;
+        });
+        return count[0];
+    }
+
+    public int getSectionsScanned() {
+        return sectionsScanned;
+    }
+
+    /**
+     * sections passed over without reading a single state because they hold nothing but air
+     */
+    public int getSectionsSkipped() {
+        return sectionsSkipped;
+    }
+
+    public int getChunksSkipped() {
+        return chunksSkipped;
+    }
+
+    public void resetStats() {
+        sectionsScanned = 0;
+        sectionsSkipped = 0;
+        chunksSkipped = 0;
+    }
+}
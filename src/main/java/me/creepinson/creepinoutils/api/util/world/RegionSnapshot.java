@@ -0,0 +1,593 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import me.creepinson.creepinoutils.api.util.BlockContainer;
+import me.creepinson.creepinoutils.api.util.BlockTileContainer;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A saved box of blocks and tile entities, the compact form of a list of {@link BlockContainer}s.
+ * Every 16x16x16 section of the box keeps a small palette and one bit-packed index per block,
+ * so a section of one block costs a few bytes and a mixed section rarely more than a few kilobytes.
+ * Tile entities live in a separate sparse table and positions are written as deltas.
+ * <br>
+ * {@link #capture(World, BlockPos, BlockPos)} reads the world section by section without loading chunks,
+ * {@link #restore(World, BlockPos, int)} writes it back through a {@link BlockEditBatch}.
+ * {@link #write(DataOutput)} and {@link #read(DataInput)} stream the snapshot without building any NBT for the blocks.
+ */
+public class RegionSnapshot {
+    private static final int VERSION = 1;
+    /**
+     * palette id of positions that were not captured, outside the box or in an unloaded chunk, they are never restored
+     */
+    private static final int SKIP = 0;
+
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+    private final int sectionX, sectionY, sectionZ;
+    private final int sizeX, sizeY, sizeZ;
+    /**
+     * every state of the snapshot, {@link #SKIP} is null
+     */
+    private final List<IBlockState> palette;
+    /**
+     * sections by grid index, null where nothing was captured
+     */
+    private final Section[] sections;
+    /**
+     * sorted {@link #boxIndex(int, int, int)} of every tile entity and its data
+     */
+    private final long[] tilePositions;
+    private final NBTTagCompound[] tiles;
+
+    private RegionSnapshot(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, List<IBlockState> palette, Section[] sections, long[] tilePositions, NBTTagCompound[] tiles) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.sectionX = minX >> 4;
+        this.sectionY = minY >> 4;
+        this.sectionZ = minZ >> 4;
+        this.sizeX = (maxX >> 4) - sectionX + 1;
+        this.sizeY = (maxY >> 4) - sectionY + 1;
+        this.sizeZ = (maxZ >> 4) - sectionZ + 1;
+        this.palette = palette;
+        this.sections = sections;
+        this.tilePositions = tilePositions;
+        this.tiles = tiles;
+    }
+
+    /**
+     * save the box between the two corners, both inclusive, chunks that are not loaded are left out.
+     * the box is clamped to the height of the world, corners both above or below it save its top or bottom layer
+     */
+    public static RegionSnapshot capture(World world, BlockPos from, BlockPos to) {
+        int minX = Math.min(from.getX(), to.getX()), maxX = Math.max(from.getX(), to.getX());
+        int minZ = Math.min(from.getZ(), to.getZ()), maxZ = Math.max(from.getZ(), to.getZ());
+        int minY = Math.min(world.getHeight() - 1, Math.max(0, Math.min(from.getY(), to.getY())));
+        int maxY = Math.max(minY, Math.min(world.getHeight() - 1, Math.max(from.getY(), to.getY())));
+        Builder builder = new Builder(minX, minY, minZ, maxX, maxY, maxZ);
+        int air = builder.id(Blocks.AIR.getDefaultState());
+        int[] ids = new int[4096];
+
+        for (int cx = 0; cx < builder.sizeX; cx++) {
+            for (int cz = 0; cz < builder.sizeZ; cz++) {
+                Chunk chunk = world.getChunkProvider().getLoadedChunk((minX >> 4) + cx, (minZ >> 4) + cz);
+                if (chunk == null)
+                    continue;
+                ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+                for (int cy = 0; cy < builder.sizeY; cy++) {
+                    int baseX = ((minX >> 4) + cx) << 4, baseY = ((minY >> 4) + cy) << 4, baseZ = ((minZ >> 4) + cz) << 4;
+                    ExtendedBlockStorage storage = storages[baseY >> 4];
+                    boolean empty = storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty();
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            for (int x = 0; x < 16; x++) {
+                                int index = y << 8 | z << 4 | x;
+                                if (!builder.contains(baseX + x, baseY + y, baseZ + z)) {
+                                    ids[index] = SKIP;
+                                } else {
+                                    ids[index] = empty ? air : builder.id(storage.get(x, y, z));
+                                }
+                            }
+                        }
+                    }
+                    builder.sections[builder.gridIndex(cx, cy, cz)] = Section.pack(ids);
+                }
+                for (TileEntity tile : chunk.getTileEntityMap().values()) {
+                    BlockPos pos = tile.getPos();
+                    if (!tile.isInvalid() && builder.contains(pos.getX(), pos.getY(), pos.getZ())) {
+                        builder.tiles.put(builder.boxIndex(pos.getX(), pos.getY(), pos.getZ()), tile.writeToNBT(new NBTTagCompound()));
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * pack a list of blocks, the box is the smallest one holding all of them and everything else in it is left out
+     */
+    public static RegionSnapshot fromContainers(Collection<? extends BlockContainer> containers) {
+        if (containers.isEmpty())
+            throw new IllegalArgumentException("Cannot create a snapshot of no blocks");
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockContainer container : containers) {
+            BlockPos pos = container.getPosition();
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        Builder builder = new Builder(minX, minY, minZ, maxX, maxY, maxZ);
+        int[][] ids = new int[builder.sections.length][];
+        for (BlockContainer container : containers) {
+            BlockPos pos = container.getPosition();
+            int grid = builder.gridIndex((pos.getX() >> 4) - (minX >> 4), (pos.getY() >> 4) - (minY >> 4), (pos.getZ() >> 4) - (minZ >> 4));
+            if (ids[grid] == null) {
+                ids[grid] = new int[4096];
+            }
+            ids[grid][(pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15)] = builder.id(container.getState());
+            if (container instanceof BlockTileContainer) {
+                TileEntity tile = ((BlockTileContainer) container).getTileEntity();
+                if (tile != null && !tile.isInvalid()) {
+                    builder.tiles.put(builder.boxIndex(pos.getX(), pos.getY(), pos.getZ()), tile.writeToNBT(new NBTTagCompound()));
+                }
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != null) {
+                builder.sections[i] = Section.pack(ids[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * every captured block that is not air, blocks with a tile entity as {@link BlockTileContainer}
+     */
+    public List<BlockContainer> toContainers(World world) {
+        List<BlockContainer> containers = new ArrayList<>();
+        forEachBlock(0, 0, 0, (pos, state, tile) -> {
+            if (state.getBlock() == Blocks.AIR)
+                return;
+            BlockContainer container;
+            if (tile != null) {
+                BlockTileContainer tileContainer = new BlockTileContainer(world);
+                tileContainer.setTileEntity(TileEntity.create(world, tile.copy()));
+                container = tileContainer;
+            } else {
+                container = new BlockContainer(world);
+            }
+            container.setState(state);
+            container.setPosition(pos.toImmutable());
+            containers.add(container);
+        });
+        return containers;
+    }
+
+    /**
+     * write the snapshot back at its own position
+     */
+    public int restore(World world) {
+        return restore(world, new BlockPos(minX, minY, minZ), BlockEditBatch.DEFAULT_FLAGS);
+    }
+
+    /**
+     * write the snapshot back with its min corner at the given position, positions that were not captured are left alone
+     *
+     * @param flags see {@link BlockEditBatch}
+     * @return how many blocks changed
+     */
+    public int restore(World world, BlockPos at, int flags) {
+        int offX = at.getX() - minX, offY = at.getY() - minY, offZ = at.getZ() - minZ;
+        BlockEditBatch batch = new BlockEditBatch(world, flags);
+        Map<BlockPos, NBTTagCompound> tileData = new LinkedHashMap<>();
+        forEachBlock(offX, offY, offZ, (pos, state, tile) -> {
+            batch.set(pos, state);
+            if (tile != null) {
+                tileData.put(pos.toImmutable(), tile);
+            }
+        });
+        int changed = batch.apply();
+        for (Map.Entry<BlockPos, NBTTagCompound> entry : tileData.entrySet()) {
+            BlockPos pos = entry.getKey();
+            if (!world.isBlockLoaded(pos))
+                continue;
+            TileEntity tile = world.getTileEntity(pos);
+            if (tile != null) {
+                NBTTagCompound nbt = entry.getValue().copy();
+                nbt.setInteger("x", pos.getX());
+                nbt.setInteger("y", pos.getY());
+                nbt.setInteger("z", pos.getZ());
+                tile.readFromNBT(nbt);
+                tile.markDirty();
+            }
+        }
+        return changed;
+    }
+
+    private void forEachBlock(int offX, int offY, int offZ, IEntryVisitor visitor) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int grid = 0; grid < sections.length; grid++) {
+            Section section = sections[grid];
+            if (section == null || section.isSkipped())
+                continue;
+            int cy = grid % sizeY, cz = (grid / sizeY) % sizeZ, cx = grid / sizeY / sizeZ;
+            int baseX = (sectionX + cx) << 4, baseY = (sectionY + cy) << 4, baseZ = (sectionZ + cz) << 4;
+            for (int index = 0; index < 4096; index++) {
+                int id = section.get(index);
+                if (id == SKIP)
+                    continue;
+                int x = baseX + (index & 15), y = baseY + (index >> 8), z = baseZ + ((index >> 4) & 15);
+                visitor.visit(cursor.setPos(x + offX, y + offY, z + offZ), palette.get(id), getTile(x, y, z));
+            }
+        }
+    }
+
+    /**
+     * @return the captured state at the position, null if it was not captured
+     */
+    public IBlockState getBlockState(BlockPos pos) {
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        if (!contains(x, y, z))
+            return null;
+        Section section = sections[gridIndex((x >> 4) - sectionX, (y >> 4) - sectionY, (z >> 4) - sectionZ)];
+        if (section == null)
+            return null;
+        return palette.get(section.get((y & 15) << 8 | (z & 15) << 4 | (x & 15)));
+    }
+
+    /**
+     * @return a copy of the saved tile entity data at the position, null if there is none
+     */
+    public NBTTagCompound getTileData(BlockPos pos) {
+        NBTTagCompound tile = contains(pos.getX(), pos.getY(), pos.getZ()) ? getTile(pos.getX(), pos.getY(), pos.getZ()) : null;
+        return tile == null ? null : tile.copy();
+    }
+
+    private NBTTagCompound getTile(int x, int y, int z) {
+        if (tilePositions.length == 0)
+            return null;
+        int i = Arrays.binarySearch(tilePositions, boxIndex(x, y, z));
+        return i < 0 ? null : tiles[i];
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    public BlockPos getMin() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    public BlockPos getMax() {
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+
+    /**
+     * @return how many different states the snapshot holds
+     */
+    public int getPaletteSize() {
+        return palette.size() - 1;
+    }
+
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    private int gridIndex(int cx, int cy, int cz) {
+        return (cx * sizeZ + cz) * sizeY + cy;
+    }
+
+    private long boxIndex(int x, int y, int z) {
+        return ((long) (x - minX) * (maxZ - minZ + 1) + (z - minZ)) * (maxY - minY + 1) + (y - minY);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(minX);
+        out.writeInt(minY);
+        out.writeInt(minZ);
+        out.writeInt(maxX);
+        out.writeInt(maxY);
+        out.writeInt(maxZ);
+
+        writeVarInt(out, palette.size() - 1);
+        for (int i = 1; i < palette.size(); i++) {
+            IBlockState state = palette.get(i);
+            out.writeUTF(state.getBlock().getRegistryName().toString());
+            writeVarInt(out, state.getBlock().getMetaFromState(state));
+        }
+
+        int present = 0;
+        for (Section section : sections) {
+            if (section != null) {
+                present++;
+            }
+        }
+        writeVarInt(out, present);
+        int previous = -1;
+        for (int grid = 0; grid < sections.length; grid++) {
+            if (sections[grid] == null)
+                continue;
+            writeVarInt(out, grid - previous);
+            previous = grid;
+            sections[grid].write(out);
+        }
+
+        writeVarInt(out, tiles.length);
+        long previousTile = -1;
+        for (int i = 0; i < tiles.length; i++) {
+            writeVarLong(out, tilePositions[i] - previousTile);
+            previousTile = tilePositions[i];
+            CompressedStreamTools.write(tiles[i], out);
+        }
+    }
+
+    /**
+     * read a snapshot written by {@link #write(DataOutput)}, blocks that are no longer registered come back as air
+     */
+    public static RegionSnapshot read(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION)
+            throw new IOException("Unknown region snapshot version " + version);
+        int minX = in.readInt(), minY = in.readInt(), minZ = in.readInt();
+        int maxX = in.readInt(), maxY = in.readInt(), maxZ = in.readInt();
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IOException("Invalid region snapshot box");
+
+        int paletteSize = readVarInt(in);
+        List<IBlockState> palette = new ArrayList<>(paletteSize + 1);
+        palette.add(null);
+        for (int i = 0; i < paletteSize; i++) {
+            Block block = ForgeRegistries.BLOCKS.getValue(new ResourceLocation(in.readUTF()));
+            int meta = readVarInt(in);
+            palette.add(block == null ? Blocks.AIR.getDefaultState() : block.getStateFromMeta(meta));
+        }
+
+        Section[] sections = new Section[((maxX >> 4) - (minX >> 4) + 1) * ((maxY >> 4) - (minY >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1)];
+        int present = readVarInt(in);
+        int grid = -1;
+        for (int i = 0; i < present; i++) {
+            grid += readVarInt(in);
+            if (grid < 0 || grid >= sections.length)
+                throw new IOException("Section " + grid + " is outside of the region snapshot");
+            sections[grid] = Section.read(in, palette.size());
+        }
+
+        int tileCount = readVarInt(in);
+        long[] tilePositions = new long[tileCount];
+        NBTTagCompound[] tiles = new NBTTagCompound[tileCount];
+        long tile = -1;
+        for (int i = 0; i < tileCount; i++) {
+            tile += readVarLong(in);
+            tilePositions[i] = tile;
+            tiles[i] = CompressedStreamTools.read(in, NBTSizeTracker.INFINITE);
+        }
+        return new RegionSnapshot(minX, minY, minZ, maxX, maxY, maxZ, palette, sections, tilePositions, tiles);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("VarInt too big");
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("VarLong too big");
+    }
+
+    private interface IEntryVisitor {
+        void visit(BlockPos.MutableBlockPos pos, IBlockState state, NBTTagCompound tile);
+    }
+
+    /**
+     * collects the palette and tiles while a snapshot is taken
+     */
+    private static final class Builder {
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private final int sizeX, sizeY, sizeZ;
+        private final Map<IBlockState, Integer> ids = new IdentityHashMap<>();
+        private final List<IBlockState> palette = new ArrayList<>();
+        private final Section[] sections;
+        private final TreeMap<Long, NBTTagCompound> tiles = new TreeMap<>();
+
+        private Builder(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.sizeX = (maxX >> 4) - (minX >> 4) + 1;
+            this.sizeY = (maxY >> 4) - (minY >> 4) + 1;
+            this.sizeZ = (maxZ >> 4) - (minZ >> 4) + 1;
+            this.sections = new Section[sizeX * sizeY * sizeZ];
+            palette.add(null);
+        }
+
+        private int id(IBlockState state) {
+            Integer id = ids.get(state);
+            if (id == null) {
+                id = palette.size();
+                ids.put(state, id);
+                palette.add(state);
+            }
+            return id;
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private int gridIndex(int cx, int cy, int cz) {
+            return (cx * sizeZ + cz) * sizeY + cy;
+        }
+
+        private long boxIndex(int x, int y, int z) {
+            return ((long) (x - minX) * (maxZ - minZ + 1) + (z - minZ)) * (maxY - minY + 1) + (y - minY);
+        }
+
+        private RegionSnapshot build() {
+            long[] tilePositions = new long[tiles.size()];
+            NBTTagCompound[] tileData = new NBTTagCompound[tiles.size()];
+            int i = 0;
+            for (Map.Entry<Long, NBTTagCompound> entry : tiles.entrySet()) {
+                tilePositions[i] = entry.getKey();
+                tileData[i++] = entry.getValue();
+            }
+            return new RegionSnapshot(minX, minY, minZ, maxX, maxY, maxZ, palette, sections, tilePositions, tileData);
+        }
+    }
+
+    private static final class Section {
+        /**
+         * the snapshot palette id of every local index
+         */
+        private final int[] palette;
+        private final int bits;
+        /**
+         * local index per block in y, z, x order, bits per entry, entries never straddle two longs, null if the palette has a single entry
+         */
+        private final long[] data;
+
+        private Section(int[] palette, long[] data) {
+            this.palette = palette;
+            this.bits = bitsFor(palette.length);
+            this.data = data;
+        }
+
+        private static int bitsFor(int paletteSize) {
+            return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+        }
+
+        private static int longsFor(int bits) {
+            int perLong = 64 / bits;
+            return (4096 + perLong - 1) / perLong;
+        }
+
+        /**
+         * @param ids the snapshot palette id of every block in y, z, x order
+         */
+        private static Section pack(int[] ids) {
+            Int2IntMap local = new Int2IntOpenHashMap();
+            local.defaultReturnValue(-1);
+            int[] palette = new int[8];
+            int size = 0;
+            for (int id : ids) {
+                if (local.get(id) == -1) {
+                    if (size == palette.length) {
+                        palette = Arrays.copyOf(palette, size * 2);
+                    }
+                    local.put(id, size);
+                    palette[size++] = id;
+                }
+            }
+            palette = Arrays.copyOf(palette, size);
+            int bits = bitsFor(size);
+            if (bits == 0)
+                return new Section(palette, null);
+            int perLong = 64 / bits;
+            long[] data = new long[longsFor(bits)];
+            for (int index = 0; index < ids.length; index++) {
+                data[index / perLong] |= (long) local.get(ids[index]) << ((index % perLong) * bits);
+            }
+            return new Section(palette, data);
+        }
+
+        private int get(int index) {
+            if (data == null)
+                return palette[0];
+            int perLong = 64 / bits;
+            return palette[(int) (data[index / perLong] >>> ((index % perLong) * bits)) & ((1 << bits) - 1)];
+        }
+
+        private boolean isSkipped() {
+            return data == null && palette[0] == SKIP;
+        }
+
+        private void write(DataOutput out) throws IOException {
+            writeVarInt(out, palette.length);
+            for (int id : palette) {
+                writeVarInt(out, id);
+            }
+            if (data != null) {
+                for (long value : data) {
+                    out.writeLong(value);
+                }
+            }
+        }
+
+        private static Section read(DataInput in, int snapshotPaletteSize) throws IOException {
+            int size = readVarInt(in);
+            if (size < 1 || size > 4096)
+                throw new IOException("Invalid section palette size " + size);
+            int[] palette = new int[size];
+            for (int i = 0; i < size; i++) {
+                palette[i] = readVarInt(in);
+                if (palette[i] < 0 || palette[i] >= snapshotPaletteSize)
+                    throw new IOException("Invalid palette id " + palette[i]);
+            }
+            int bits = bitsFor(size);
+            long[] data = null;
+            if (bits > 0) {
+                data = new long[longsFor(bits)];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = in.readLong();
+                }
+            }
+            return new Section(palette, data);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.util.IThreadListener;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs world scans off the world thread.
+ * The box is copied into a {@link WorldSnapshot} on the calling thread, the scan runs on a shared pool of daemon workers
+ * and the result is handed back to the world's thread, so large scans cost the tick only the copy.
+ */
+public class SnapshotScanner {
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+        Thread thread = new Thread(runnable, "CreepinoUtils Scanner #" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * copy the box now and scan it on a worker, call this from the thread owning the world
+     *
+     * @return completes on the world's thread, or on the worker for worlds without one
+     */
+    public static <R> CompletableFuture<ScanResult<R>> scan(World world, BlockPos from, BlockPos to, Function<WorldSnapshot, R> scan) {
+        WorldSnapshot snapshot = WorldSnapshot.capture(world, from, to);
+        IThreadListener owner = world instanceof IThreadListener ? (IThreadListener) world : world.getMinecraftServer();
+        CompletableFuture<ScanResult<R>> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                ScanResult<R> done = new ScanResult<>(scan.apply(snapshot), snapshot.getCopyNanos(), System.nanoTime() - start);
+                deliver(owner, () -> result.complete(done));
+            } catch (Throwable t) {
+                deliver(owner, () -> result.completeExceptionally(t));
+            }
+        });
+        return result;
+    }
+
+    private static void deliver(IThreadListener owner, Runnable task) {
+        if (owner == null) {
+            task.run();
+        } else {
+            owner.addScheduledTask(task);
+        }
+    }
+
+    public static class ScanResult<R> {
+        public final R value;
+        /**
+         * time spent copying the box on the world thread
+         */
+        public final long copyNanos;
+        /**
+         * time spent scanning the copy on the worker
+         */
+        public final long scanNanos;
+
+        public ScanResult(R value, long copyNanos, long scanNanos) {
+            this.value = value;
+            this.copyNanos = copyNanos;
+            this.scanNanos = scanNanos;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package me.creepinson.creepinoutils.api.util.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An immutable copy of the block states and tile positions of a box, safe to read from any thread.
+ * Every loaded section touching the box is copied as a small palette plus one index per block,
+ * sections holding only air share one empty instance and sections of unloaded chunks are left out.
+ * <br>
+ * Capture it on the thread owning the world with {@link #capture(World, BlockPos, BlockPos)}, scan it anywhere,
+ * {@link SnapshotScanner} does both and hands the result back to the world thread.
+ */
+public final class WorldSnapshot {
+    private static final Section EMPTY = new Section(new IBlockState[]{Blocks.AIR.getDefaultState()}, null);
+
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+    private final int sectionX, sectionY, sectionZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final Section[] sections;
+    private final long[] tiles;
+    private final long copyNanos;
+
+    private WorldSnapshot(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Section[] sections, long[] tiles, long copyNanos) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.sectionX = minX >> 4;
+        this.sectionY = minY >> 4;
+        this.sectionZ = minZ >> 4;
+        this.sizeX = (maxX >> 4) - sectionX + 1;
+        this.sizeY = (maxY >> 4) - sectionY + 1;
+        this.sizeZ = (maxZ >> 4) - sectionZ + 1;
+        this.sections = sections;
+        this.tiles = tiles;
+        this.copyNanos = copyNanos;
+    }
+
+    /**
+     * copy the box between the two corners, both inclusive, without loading any chunk.
+     * the box is clamped to the height of the world, corners both above or below it copy its top or bottom layer
+     */
+    public static WorldSnapshot capture(World world, BlockPos from, BlockPos to) {
+        long start = System.nanoTime();
+        int minX = Math.min(from.getX(), to.getX()), maxX = Math.max(from.getX(), to.getX());
+        int minZ = Math.min(from.getZ(), to.getZ()), maxZ = Math.max(from.getZ(), to.getZ());
+        int minY = Math.min(world.getHeight() - 1, Math.max(0, Math.min(from.getY(), to.getY())));
+        int maxY = Math.max(minY, Math.min(world.getHeight() - 1, Math.max(from.getY(), to.getY())));
+        int sizeX = (maxX >> 4) - (minX >> 4) + 1;
+        int sizeY = (maxY >> 4) - (minY >> 4) + 1;
+        int sizeZ = (maxZ >> 4) - (minZ >> 4) + 1;
+        Section[] sections = new Section[sizeX * sizeY * sizeZ];
+        List<Long> tiles = new ArrayList<>();
+
+        for (int cx = 0; cx < sizeX; cx++) {
+            for (int cz = 0; cz < sizeZ; cz++) {
+                Chunk chunk = world.getChunkProvider().getLoadedChunk((minX >> 4) + cx, (minZ >> 4) + cz);
+                if (chunk == null)
+                    continue;
+                ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+                for (int cy = 0; cy < sizeY; cy++) {
+                    ExtendedBlockStorage storage = storages[(minY >> 4) + cy];
+                    sections[(cx * sizeZ + cz) * sizeY + cy] = storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty() ? EMPTY : Section.copy(storage);
+                }
+                for (TileEntity tile : chunk.getTileEntityMap().values()) {
+                    BlockPos pos = tile.getPos();
+                    if (!tile.isInvalid() && pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
+                            && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
+                        tiles.add(pos.toLong());
+                    }
+                }
+            }
+        }
+
+        long[] tilePositions = new long[tiles.size()];
+        for (int i = 0; i < tilePositions.length; i++) {
+            tilePositions[i] = tiles.get(i);
+        }
+        Arrays.sort(tilePositions);
+        return new WorldSnapshot(minX, minY, minZ, maxX, maxY, maxZ, sections, tilePositions, System.nanoTime() - start);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * @return the state at the position or null if it is outside the box or its chunk was not loaded
+     */
+    public IBlockState getBlockState(int x, int y, int z) {
+        if (!contains(x, y, z))
+            return null;
+        Section section = getSection(x, y, z);
+        return section == null ? null : section.get(x & 15, y & 15, z & 15);
+    }
+
+    public IBlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public boolean isLoaded(int x, int y, int z) {
+        return contains(x, y, z) && getSection(x, y, z) != null;
+    }
+
+    public boolean hasTile(BlockPos pos) {
+        return Arrays.binarySearch(tiles, pos.toLong()) >= 0;
+    }
+
+    /**
+     * @return the positions of every tile in the box as {@link BlockPos#toLong()}, sorted
+     */
+    public long[] getTilePositions() {
+        return tiles.clone();
+    }
+
+    /**
+     * @return how long {@link #capture(World, BlockPos, BlockPos)} took on the world thread
+     */
+    public long getCopyNanos() {
+        return copyNanos;
+    }
+
+    /**
+     * visit every non air block of the loaded part of the box, in section order
+     *
+     * @return true if every block was visited, false if the visitor stopped early
+     */
+    public boolean scan(RegionScanner.IBlockVisitor visitor) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int cx = 0; cx < sizeX; cx++) {
+            for (int cz = 0; cz < sizeZ; cz++) {
+                for (int cy = 0; cy < sizeY; cy++) {
+                    Section section = sections[(cx * sizeZ + cz) * sizeY + cy];
+                    if (section == null || section == EMPTY)
+                        continue;
+                    int baseX = (sectionX + cx) << 4, baseY = (sectionY + cy) << 4, baseZ = (sectionZ + cz) << 4;
+                    int x0 = Math.max(minX, baseX), x1 = Math.min(maxX, baseX + 15);
+                    int y0 = Math.max(minY, baseY), y1 = Math.min(maxY, baseY + 15);
+                    int z0 = Math.max(minZ, baseZ), z1 = Math.min(maxZ, baseZ + 15);
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            for (int x = x0; x <= x1; x++) {
+                                IBlockState state = section.get(x & 15, y & 15, z & 15);
+                                if (state.getBlock() != Blocks.AIR && !visitor.visit(cursor.setPos(x, y, z), state))
+                                    return false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * collect the blocks connected to start through faces whose states match, staying inside the loaded part of the box
+     *
+     * @param limit the most blocks collected, the fill stops once it is reached
+     */
+    public List<BlockPos> floodFill(BlockPos start, Predicate<IBlockState> predicate, int limit) {
+        List<BlockPos> result = new ArrayList<>();
+        IBlockState first = getBlockState(start);
+        if (first == null || !predicate.test(first))
+            return result;
+        Set<Long> visited = new HashSet<>();
+        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
+        visited.add(start.toLong());
+        queue.add(start.toImmutable());
+        while (!queue.isEmpty() && result.size() < limit) {
+            BlockPos pos = queue.poll();
+            result.add(pos);
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                BlockPos next = pos.offset(facing);
+                if (!visited.add(next.toLong()))
+                    continue;
+                IBlockState state = getBlockState(next);
+                if (state != null && predicate.test(state)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Section getSection(int x, int y, int z) {
+        int cx = (x >> 4) - sectionX, cy = (y >> 4) - sectionY, cz = (z >> 4) - sectionZ;
+        return sections[(cx * sizeZ + cz) * sizeY + cy];
+    }
+
+    private static final class Section {
+        private final IBlockState[] palette;
+        /**
+         * palette index per block in y, z, x order, null if the palette has a single state
+         */
+        private final char[] indices;
+
+        private Section(IBlockState[] palette, char[] indices) {
+            this.palette = palette;
+            this.indices = indices;
+        }
+
+        private static Section copy(ExtendedBlockStorage storage) {
+            Map<IBlockState, Integer> ids = new IdentityHashMap<>();
+            List<IBlockState> palette = new ArrayList<>();
+            char[] indices = new char[4096];
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        IBlockState state = storage.get(x, y, z);
+                        Integer id = ids.get(state);
+                        if (id == null) {
+                            id = palette.size();
+                            ids.put(state, id);
+                            palette.add(state);
+                        }
+                        indices[y << 8 | z << 4 | x] = (char) id.intValue();
+                    }
+                }
+            }
+            return new Section(palette.toArray(new IBlockState[0]), palette.size() == 1 ? null : indices);
+        }
+
+        private IBlockState get(int x, int y, int z) {
+            return indices == null ? palette[0] : palette[indices[y << 8 | z << 4 | x]];
+        }
+    }
+}
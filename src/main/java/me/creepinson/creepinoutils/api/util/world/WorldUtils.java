@@ -1,6 +1,5 @@
 package me.creepinson.creepinoutils.api.util.world;
 
-import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
@@ -158,22 +157,21 @@ public class WorldUtils {
 
     /**
      * Notifies neighboring blocks of a TileEntity change without loading chunks.
+     * The notifications are queued in the {@link NeighborNotificationQueue} and delivered once at the end of the tick.
      *
      * @param world - world to perform the operation in
      * @param coord - Vector3 to perform the operation on
      */
     public static void notifyLoadedNeighborsOfTileChange(World world, Vector3 coord) {
+        BlockPos pos = coord.toBlockPos();
         for (EnumFacing dir : EnumFacing.VALUES) {
-            Vector3 offset = coord.offset(dir);
-            if (offset.exists(world)) {
-                notifyNeighborofChange(world, offset, coord.toBlockPos());
-                if (offset.getBlockState(world).isNormalCube()) {
+            BlockPos offset = pos.offset(dir);
+            if (world.isBlockLoaded(offset)) {
+                NeighborNotificationQueue.enqueue(world, offset, pos, NeighborNotificationQueue.NEIGHBOR_CHANGED | NeighborNotificationQueue.ON_NEIGHBOR_CHANGE);
+                if (world.getBlockState(offset).isNormalCube()) {
                     offset = offset.offset(dir);
-                    if (offset.exists(world)) {
-                        Block block1 = offset.getBlock(world);
-                        if (block1.getWeakChanges(world, offset.toBlockPos())) {
-                            block1.onNeighborChange(world, offset.toBlockPos(), coord.toBlockPos());
-                        }
+                    if (world.isBlockLoaded(offset) && world.getBlockState(offset).getBlock().getWeakChanges(world, offset)) {
+                        NeighborNotificationQueue.enqueue(world, offset, pos, NeighborNotificationQueue.ON_NEIGHBOR_CHANGE);
                     }
                 }
             }
@@ -182,15 +180,14 @@ public class WorldUtils {
 
     /**
      * Calls BOTH neighbour changed functions because nobody can decide on which one to implement.
+     * Queued in the {@link NeighborNotificationQueue}, so several changes of the same block in one tick notify each neighbour once.
      *
      * @param world   world the change exists in
      * @param coord   neighbor to notify
      * @param fromPos pos of our block that updated
      */
     public static void notifyNeighborofChange(World world, Vector3 coord, BlockPos fromPos) {
-        IBlockState state = coord.getBlockState(world);
-        state.getBlock().onNeighborChange(world, coord.toBlockPos(), fromPos);
-        state.neighborChanged(world, coord.toBlockPos(), world.getBlockState(fromPos).getBlock(), fromPos);
+        NeighborNotificationQueue.enqueue(world, coord.toBlockPos(), fromPos, NeighborNotificationQueue.NEIGHBOR_CHANGED | NeighborNotificationQueue.ON_NEIGHBOR_CHANGE);
     }
 
     /**
@@ -209,18 +206,10 @@ public class WorldUtils {
      *
      * @param world - the world to perform the check in
      * @param coord - the Vector3 of the block to check
-     * @return if the block is directly getting powered
+     * @return if the block is directly getting powered, cached for the rest of the tick by {@link RedstonePowerCache}
      */
     public static boolean isDirectlyGettingPowered(World world, Vector3 coord) {
-        for (EnumFacing side : EnumFacing.VALUES) {
-            Vector3 sideCoord = coord.offset(side);
-            if (sideCoord.exists(world)) {
-                if (world.getRedstonePower(coord.toBlockPos(), side) > 0) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return RedstonePowerCache.isDirectlyGettingPowered(world, coord.toBlockPos());
     }
 
 
@@ -229,22 +218,10 @@ public class WorldUtils {
      *
      * @param world - the world to perform the check in
      * @param coord - the coordinate of the block performing the check
-     * @return if the block is indirectly getting powered by LOADED chunks
+     * @return if the block is indirectly getting powered by LOADED chunks, cached for the rest of the tick by {@link RedstonePowerCache}
      */
     public static boolean isGettingPowered(World world, Vector3 coord) {
-        for (EnumFacing side : EnumFacing.VALUES) {
-            Vector3 sideCoord = coord.offset(side);
-            if (sideCoord.exists(world) && sideCoord.offset(side).exists(world)) {
-                IBlockState blockState = sideCoord.getBlockState(world);
-                boolean weakPower = blockState.getBlock().shouldCheckWeakPower(blockState, world, coord.toBlockPos(), side);
-                if (weakPower && isDirectlyGettingPowered(world, sideCoord)) {
-                    return true;
-                } else if (!weakPower && blockState.getWeakPower(world, sideCoord.toBlockPos(), side) > 0) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return RedstonePowerCache.isGettingPowered(world, coord.toBlockPos());
     }
 
     /**
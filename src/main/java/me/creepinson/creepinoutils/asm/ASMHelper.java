@@ -12,13 +12,24 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Made By Creepinson
  */
 
 public class ASMHelper {
-    public static HashMap<String, ClassNode> cacheNodes = new HashMap<>();
+    /**
+     * the most class nodes kept in {@link #cacheNodes} before the least recently used one is evicted
+     */
+    public static int cacheNodesLimit = 16;
+    public static HashMap<String, ClassNode> cacheNodes = new LinkedHashMap<String, ClassNode>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ClassNode> eldest) {
+            return size() > cacheNodesLimit;
+        }
+    };
 
     /**
      * srg support doesn't patch local vars nor instructions
@@ -84,9 +95,9 @@ public class ASMHelper {
      */
     public static MethodNode getCachedMethodNode(String inputStream, String obMethod, String method_desc)
             throws IOException {
-        if (cacheNodes.containsKey(inputStream)) {
-            ClassNode node = cacheNodes.get(inputStream);
-            return getMethodNode(node, obMethod, method_desc);
+        ClassNode cached = cacheNodes.get(inputStream);
+        if (cached != null) {
+            return getMethodNode(cached, obMethod, method_desc);
         }
         InputStream stream = ASMHelper.class.getClassLoader().getResourceAsStream(inputStream);
         ClassNode node = getClassNode(stream);
@@ -0,0 +1,15 @@
+package me.creepinson.creepinoutils.asm;
+
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * a single patch applied to a parsed class by a {@link PatchingTransformer}
+ */
+@FunctionalInterface
+public interface IClassPatch {
+
+    /**
+     * patch the class node in place, every patch registered for the same class shares one node
+     */
+    void patch(ClassNode classNode);
+}
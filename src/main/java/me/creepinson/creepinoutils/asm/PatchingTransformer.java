@@ -0,0 +1,152 @@
+package me.creepinson.creepinoutils.asm;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.*;
+
+/**
+ * Dispatches classes to the {@link IClassPatch}es registered for them.
+ * Targets are matched with a single hash lookup on the transformed name, so only matching classes are ever parsed,
+ * and every patch of one class shares the same {@link ClassNode}.
+ * Frames are only recomputed for targets that registered a patch which changes control flow,
+ * everything else is written with {@link ClassWriter#COMPUTE_MAXS}.
+ * <br>
+ * The on disk {@link TransformCache} is off by default, launch with -Dcreepinoutils.asm.cache=true to enable it.
+ */
+public abstract class PatchingTransformer implements IClassTransformer {
+    public static final String CACHE_PROPERTY = "creepinoutils.asm.cache";
+
+    protected final Logger logger;
+    private final Map<String, PatchTarget> targets = new HashMap<>();
+    private final Map<String, PatchTiming> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final int readFlags;
+    private final TransformCache cache;
+
+    /**
+     * @param name         used for the logger and the cache directory
+     * @param cacheVersion change this whenever a patch changes to invalidate the disk cache
+     * @param readFlags    flags passed to {@link ClassReader#accept(org.objectweb.asm.ClassVisitor, int)}
+     */
+    protected PatchingTransformer(String name, String cacheVersion, int readFlags) {
+        this.logger = LogManager.getLogger(name);
+        this.readFlags = readFlags;
+        this.cache = Boolean.getBoolean(CACHE_PROPERTY) ? TransformCache.create(name, cacheVersion) : null;
+    }
+
+    /**
+     * @param computeFrames true if the patch adds jumps or changes local types, which invalidates the stack map frames
+     */
+    protected void registerPatch(String transformedName, boolean computeFrames, IClassPatch patch) {
+        PatchTarget target = targets.get(transformedName);
+        if (target == null) {
+            target = new PatchTarget();
+            targets.put(transformedName, target);
+        }
+        target.patches.add(patch);
+        target.computeFrames |= computeFrames;
+    }
+
+    public boolean isTarget(String transformedName) {
+        return targets.containsKey(transformedName);
+    }
+
+    /**
+     * gets called before the patches of a matched class run
+     */
+    protected void onMatch(String name, String transformedName) {
+
+    }
+
+    @Override
+    public byte[] transform(String name, String transformedName, byte[] basicClass) {
+        if (basicClass == null)
+            return null;
+        PatchTarget target = targets.get(transformedName);
+        if (target == null)
+            return basicClass;
+
+        onMatch(name, transformedName);
+        PatchTiming timing = new PatchTiming();
+        long start = System.nanoTime();
+        try {
+            String key = null;
+            if (cache != null) {
+                key = cache.key(basicClass);
+                byte[] cached = cache.get(transformedName, key);
+                if (cached != null) {
+                    timing.cacheHit = true;
+                    timing.totalNanos = System.nanoTime() - start;
+                    record(transformedName, timing);
+                    return cached;
+                }
+            }
+
+            ClassReader reader = new ClassReader(basicClass);
+            ClassNode classNode = new ClassNode();
+            reader.accept(classNode, target.computeFrames ? readFlags | ClassReader.SKIP_FRAMES : readFlags);
+            long parsed = System.nanoTime();
+            timing.parseNanos = parsed - start;
+
+            for (IClassPatch patch : target.patches) {
+                patch.patch(classNode);
+            }
+            long patched = System.nanoTime();
+            timing.patchNanos = patched - parsed;
+
+            ClassWriter classWriter = new ClassWriter(target.computeFrames ? ClassWriter.COMPUTE_FRAMES : ClassWriter.COMPUTE_MAXS);
+            classNode.accept(classWriter);
+            byte[] bytes = classWriter.toByteArray();
+            long written = System.nanoTime();
+            timing.writeNanos = written - patched;
+
+            if (cache != null) {
+                cache.put(transformedName, key, bytes);
+            }
+            timing.totalNanos = System.nanoTime() - start;
+            record(transformedName, timing);
+            return bytes;
+        } catch (Throwable e) {
+            logger.error("Failed to patch " + transformedName, e);
+            return basicClass;
+        }
+    }
+
+    private void record(String transformedName, PatchTiming timing) {
+        timings.put(transformedName, timing);
+        logger.debug("Patched " + transformedName + " " + timing);
+    }
+
+    /**
+     * timing metrics for every class patched so far, keyed by transformed name
+     */
+    public Map<String, PatchTiming> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    private static class PatchTarget {
+        private final List<IClassPatch> patches = new ArrayList<>(1);
+        private boolean computeFrames;
+    }
+
+    public static class PatchTiming {
+        public boolean cacheHit;
+        public long parseNanos;
+        public long patchNanos;
+        public long writeNanos;
+        public long totalNanos;
+
+        @Override
+        public String toString() {
+            if (cacheHit)
+                return "from cache in " + totalNanos / 1000 + "us";
+            return "in " + totalNanos / 1000 + "us (parse " + parseNanos / 1000 + "us, patch " + patchNanos / 1000 + "us, write " + writeNanos / 1000 + "us)";
+        }
+    }
+}
@@ -5,67 +5,31 @@
 
 package me.creepinson.creepinoutils.asm;
 
-import net.minecraft.launchwrapper.IClassTransformer;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
 import java.util.Arrays;
 import java.util.List;
 
-public class RenderTransformer implements IClassTransformer {
+public class RenderTransformer extends PatchingTransformer {
     public static final List<String> clazzes = Arrays.asList(new String[]{"net.minecraftforge.client.ForgeHooksClient", "net.minecraft.client.Minecraft", "net.minecraft.client.renderer.entity.RenderManager", "net.minecraft.client.renderer.texture.TextureManager", "net.minecraft.client.renderer.RenderItem"});
 
     public RenderTransformer() {
+        super("creepinoutils-render", "1", ClassReader.SKIP_DEBUG);
+        // patches that insert an early return add a branch target and need their frames recomputed
+        registerPatch(clazzes.get(0), true, RenderTransformer::patchCameraTransform);
+        registerPatch(clazzes.get(1), false, RenderTransformer::patchMinecraft);
+        registerPatch(clazzes.get(2), false, RenderTransformer::patchRenderManager);
+        registerPatch(clazzes.get(3), true, RenderTransformer::patchTextureManager);
+        registerPatch(clazzes.get(4), true, RenderTransformer::patchRenderItem);
     }
 
-
-    public byte[] transform(String name, String transformedName, byte[] basicClass) {
-        if (basicClass == null) {
-            return null;
-        } else {
-            int index = clazzes.indexOf(transformedName);
-            return index != -1 ? this.transform(index, basicClass, !name.equals(transformedName)) : basicClass;
-        }
-    }
-
-    public byte[] transform(int index, byte[] basicClass, boolean obfuscated) {
-        Plugin.isObf = obfuscated;
-        try {
-            ClassNode classNode = new ClassNode();
-            ClassReader reader = new ClassReader(basicClass);
-            reader.accept(classNode, ClassReader.SKIP_DEBUG);
-            switch (index) {
-                case 0:
-                    patchCameraTransform(classNode);
-                    break;
-                case 1:
-                    patchMinecraft(classNode);
-                    break;
-                case 2:
-                    patchRenderManager(classNode);
-                    break;
-                case 3:
-                    patchTextureManager(classNode);
-                    break;
-                case 4:
-                    patchRenderItem(classNode);
-                    break;
-            }
-
-            ClassWriter classWriter = new ClassWriter(3);
-            classNode.accept(classWriter);
-            byte[] bytes = classWriter.toByteArray();
-
-            return bytes;
-        } catch (Throwable var7) {
-            var7.printStackTrace();
-            return basicClass;
-        }
+    @Override
+    protected void onMatch(String name, String transformedName) {
+        Plugin.isObf = !name.equals(transformedName);
     }
 
-
     public static void patchRenderItem(ClassNode classNode) {
         //add IItemRendererHandler.applyGlTranslates(model) to RenderItem#renderItem
         System.out.println("patching RenderItem.class");
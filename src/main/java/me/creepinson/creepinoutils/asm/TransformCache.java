@@ -0,0 +1,84 @@
+package me.creepinson.creepinoutils.asm;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * on disk cache of transformed class bytes keyed by a hash of the untransformed input
+ * so unchanged classes skip parsing, patching and frame computation on the next launch
+ */
+public class TransformCache {
+    private final File directory;
+    private final String version;
+
+    /**
+     * @param version bump this whenever a patch changes so stale entries are never reused
+     */
+    public TransformCache(File directory, String version) {
+        this.directory = directory;
+        this.version = version;
+    }
+
+    /**
+     * the default cache location next to the asm dumps of {@link ASMHelper#dumpFile(String, byte[])}
+     */
+    public static TransformCache create(String owner, String version) {
+        return new TransformCache(new File(System.getProperty("user.dir") + "/asm/cache/" + owner), version);
+    }
+
+    public String key(byte[] basicClass) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(basicClass);
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * @return the cached transformed bytes or null if there is no usable entry
+     */
+    public byte[] get(String transformedName, String key) {
+        File file = getFile(transformedName, key);
+        if (!file.isFile())
+            return null;
+        try {
+            return FileUtils.readFileToByteArray(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void put(String transformedName, String key, byte[] transformed) {
+        File file = getFile(transformedName, key);
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            FileUtils.writeByteArrayToFile(temp, transformed);
+            if (!temp.renameTo(file)) {
+                FileUtils.deleteQuietly(temp);
+            }
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    public void clear() {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    private File getFile(String transformedName, String key) {
+        return new File(directory, transformedName + "/" + key + ".class");
+    }
+}
@@ -12,11 +12,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.Configurator;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileWriter;
-import java.io.InputStreamReader;
-import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * @author Creepinson http://gitlab.com/creepinson
@@ -30,7 +29,11 @@ public abstract class BaseMod {
     public final String modId;
     public final String modName;
     public final String modVersion;
-    protected String UPDATE_LATEST_VER = null;
+    /**
+     * Set from the update checker thread once the check finished, see {@link #getLatestVersion()} to wait for it.
+     */
+    protected volatile String UPDATE_LATEST_VER = null;
+    private final CompletableFuture<String> latestVersion = new CompletableFuture<>();
 
     /**
      * Defaults to NULL
@@ -67,28 +70,38 @@ public abstract class BaseMod {
         return _LOGGER;
     }
 
+    /**
+     * Starts the update check in the background, loading continues without waiting for the version host.
+     */
     protected void checkForUpdates() {
         if (modVersionSettings != null) {
-            try {
-                URL versionIn = new URL(modVersionSettings.versionUrl);
-                BufferedReader in = new BufferedReader(new InputStreamReader(versionIn.openStream()));
-                if (modVersionSettings.raw) {
-                    UPDATE_LATEST_VER = in.readLine();
-                } else {
-                    StringBuilder builder = new StringBuilder();
-                    in.lines().forEach(builder::append);
-                    JsonObject object = GsonUtils.getGson().fromJson(builder.toString(), JsonObject.class);
-                    UPDATE_LATEST_VER = object.get("latestVersion").getAsString();
+            File cacheFile = _CONFIG_BASE == null ? null : new File(_CONFIG_BASE + "/" + modId, "latest_version.json");
+            UpdateChecker.check(modVersionSettings, cacheFile).whenComplete((version, e) -> {
+                if (e != null) {
+                    getLogger().warn("Unable to get the latest version information", e);
+                    version = modVersion;
                 }
-
-            } catch (Exception e) {
-                getLogger().warn("Unable to get the latest version information");
-                e.printStackTrace();
-                UPDATE_LATEST_VER = modVersion;
-            }
+                UPDATE_LATEST_VER = version;
+                latestVersion.complete(version);
+            });
         }
     }
 
+    /**
+     * Completes with the latest version once the update check finished, or with the current version if it failed.
+     * Never completes if there are no version settings or update checks are disabled.
+     */
+    public CompletableFuture<String> getLatestVersion() {
+        return latestVersion;
+    }
+
+    /**
+     * @param callback gets called on the update checker thread, or right away if the check already finished
+     */
+    public void onLatestVersion(Consumer<String> callback) {
+        latestVersion.thenAccept(callback);
+    }
+
     public void init(FMLInitializationEvent event) {
 
     }
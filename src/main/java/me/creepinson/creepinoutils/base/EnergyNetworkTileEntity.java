@@ -2,6 +2,7 @@ package me.creepinson.creepinoutils.base;
 
 import me.creepinson.creepinoutils.api.network.INetworkTile;
 import me.creepinson.creepinoutils.api.util.BlockUtils;
+import me.creepinson.creepinoutils.api.util.NeighborCapabilityCache;
 import me.creepinson.creepinoutils.api.util.math.Vector3;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
@@ -13,9 +14,10 @@ import net.minecraftforge.energy.IEnergyStorage;
 import java.util.HashSet;
 import java.util.Set;
 
-public abstract class EnergyNetworkTileEntity extends TileEntity implements INetworkTile, IEnergyStorage {
+public abstract class EnergyNetworkTileEntity extends TileEntity implements INetworkTile, NeighborCapabilityCache.IProvider, IEnergyStorage {
 
     private Set<Vector3> connections = new HashSet<>();
+    protected final NeighborCapabilityCache neighbors = new NeighborCapabilityCache(this);
 
     @Override
     public void refresh() {
@@ -26,9 +28,27 @@ public abstract class EnergyNetworkTileEntity extends TileEntity implements INet
 
     @Override
     public void onNeighborChange(Vector3 v) {
+        neighbors.invalidateAll();
         refresh();
     }
 
+    @Override
+    public NeighborCapabilityCache getNeighborCache() {
+        return neighbors;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        neighbors.invalidateAll();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        neighbors.invalidateAll();
+    }
+
     @Override
     public void onLoad() {
         this.refresh();
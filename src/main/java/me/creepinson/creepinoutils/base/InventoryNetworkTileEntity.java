@@ -7,12 +7,19 @@ import java.util.Set;
 
 import javax.annotation.Nonnull;
 
+import com.draco18s.hardlib.util.CapabilityUtils;
 import me.creepinson.creepinoutils.api.network.INetworkTile;
+import me.creepinson.creepinoutils.api.network.inventory.ItemTransportEngine;
+import me.creepinson.creepinoutils.api.network.inventory.NetworkItemIndex;
 import me.creepinson.creepinoutils.api.upgrade.Upgrade;
 import me.creepinson.creepinoutils.api.upgrade.UpgradeInfo;
+import me.creepinson.creepinoutils.api.upgrade.UpgradeStorage;
 import me.creepinson.creepinoutils.api.util.BlockUtils;
+import me.creepinson.creepinoutils.api.util.NeighborCapabilityCache;
 import me.creepinson.creepinoutils.api.util.math.Vector3;
+import me.creepinson.creepinoutils.api.util.world.NeighborNotificationQueue;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.world.IBlockAccess;
@@ -26,50 +33,126 @@ import net.minecraftforge.items.IItemHandler;
 // @Optional.InterfaceList(value = {@Optional.Interface(iface =
 // "mekanism.api.IConfigurable", modid = Hooks.MEKANISM, striprefs = true)})
 
-public abstract class InventoryNetworkTileEntity extends TileEntity implements INetworkTile, IItemHandler {
+public abstract class InventoryNetworkTileEntity extends TileEntity implements INetworkTile, NeighborCapabilityCache.IProvider, IItemHandler {
     private Set<Vector3> connections = new HashSet<>();
+    /**
+     * Capability handlers of the adjacent tiles, dropped on neighbour changes.
+     */
+    protected final NeighborCapabilityCache neighbors = new NeighborCapabilityCache(this);
+    /**
+     * Items of every connected inventory, call {@link NetworkItemIndex#update()} from {@link #update()} to keep it in sync.
+     */
+    protected final NetworkItemIndex itemIndex = new NetworkItemIndex();
+    /**
+     * Created on first use by tiles that move items, call {@link ItemTransportEngine#tick()} from {@link #update()}.
+     */
+    protected ItemTransportEngine transport;
 
     @Override
     public void refresh() {
         connections = BlockUtils.getTilesWithCapability(world, new Vector3(pos),
                 CapabilityItemHandler.ITEM_HANDLER_CAPABILITY);
+        itemIndex.setHandlers(getConnectedHandlers());
+        if (transport != null) {
+            transport.setTopology(connections);
+        }
     }
 
-    public final List<UpgradeInfo> upgrades = new ArrayList<>();
-
-    public UpgradeInfo getByUpgrade(Upgrade upgrade) {
-        for (UpgradeInfo i : upgrades) {
-            if (i.upgrade.equals(upgrade)) {
-                return i;
+    /**
+     * the item handlers of every connected tile except this one
+     */
+    public List<IItemHandler> getConnectedHandlers() {
+        List<IItemHandler> handlers = new ArrayList<>();
+        for (Vector3 connection : connections) {
+            TileEntity tile = world.getTileEntity(connection.toBlockPos());
+            if (tile == null || tile == this || tile.isInvalid())
+                continue;
+            IItemHandler handler = CapabilityUtils.getCapability(tile, CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null);
+            if (handler != null) {
+                handlers.add(handler);
             }
         }
-        return null;
+        return handlers;
     }
 
-    public UpgradeInfo getByStack(ItemStack stack) {
-        for (UpgradeInfo i : upgrades) {
-            if (ItemStack.areItemStacksEqual(stack, i.upgradeItem)) {
-                return i;
-            }
+    @Override
+    public void onNeighborChange(Vector3 v) {
+        neighbors.invalidateAll();
+        refresh();
+    }
+
+    @Override
+    public NeighborCapabilityCache getNeighborCache() {
+        return neighbors;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        neighbors.invalidateAll();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        neighbors.invalidateAll();
+    }
+
+    public NetworkItemIndex getItemIndex() {
+        return itemIndex;
+    }
+
+    public ItemTransportEngine getTransport() {
+        if (transport == null) {
+            transport = new ItemTransportEngine(world);
+            transport.setTopology(connections);
         }
-        return null;
+        return transport;
+    }
+
+    protected final UpgradeStorage upgradeStorage = new UpgradeStorage();
+    /**
+     * @deprecated a live view of {@link #getUpgradeStorage()}, kept for code that used the old list
+     */
+    @Deprecated
+    public final List<UpgradeInfo> upgrades = upgradeStorage.asList();
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound) {
+        super.readFromNBT(compound);
+        upgradeStorage.readFromNBT(compound);
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound compound) {
+        upgradeStorage.writeToNBT(compound);
+        return super.writeToNBT(compound);
+    }
+
+    public UpgradeStorage getUpgradeStorage() {
+        return upgradeStorage;
+    }
+
+    public UpgradeInfo getByUpgrade(Upgrade upgrade) {
+        return upgradeStorage.getByUpgrade(upgrade);
+    }
+
+    public UpgradeInfo getByStack(ItemStack stack) {
+        return upgradeStorage.getByStack(stack);
+    }
+
+    public int getUpgradeCount(Upgrade upgrade) {
+        return upgradeStorage.getCount(upgrade);
     }
 
     @Override
     public boolean upgrade(UpgradeInfo info) {
-        if (canUpgrade()) {
-            upgrades.add(getByStack(info.upgradeItem));
-            return true;
-        } else {
-            return false;
-        }
+        return canUpgrade() && upgradeStorage.add(info);
     }
 
     @Override
     public ItemStack removeUpgrade(Upgrade upgrade) {
-        ItemStack i = getByUpgrade(upgrade).upgradeItem.copy();
-        upgrades.remove(getByUpgrade(upgrade));
-        return i;
+        return upgradeStorage.remove(upgrade);
     }
 
     @Override
@@ -79,7 +162,7 @@ public abstract class InventoryNetworkTileEntity extends TileEntity implements I
 
     @Override
     public List<UpgradeInfo> getStoredUpgrades() {
-        return upgrades;
+        return upgradeStorage.getInstalled();
     }
 
     protected boolean connectable = true;
@@ -105,8 +188,7 @@ public abstract class InventoryNetworkTileEntity extends TileEntity implements I
 
     public void updateConnectedBlocks() {
         for (EnumFacing f : EnumFacing.values()) {
-            world.notifyBlockUpdate(pos.offset(f), world.getBlockState(pos.offset(f)),
-                    world.getBlockState(pos.offset(f)), 2);
+            NeighborNotificationQueue.enqueue(world, pos.offset(f), pos, NeighborNotificationQueue.BLOCK_UPDATE);
         }
     }
 
@@ -0,0 +1,111 @@
+package me.creepinson.creepinoutils.base;
+
+import com.google.gson.JsonObject;
+import me.creepinson.creepinoutils.api.util.GsonUtils;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks for the latest version of a mod off the loading thread.
+ * All mods share one daemon thread, failed checks are retried with exponential backoff
+ * and successful results are cached on disk so restarts within the cache ttl never touch the network.
+ */
+public class UpdateChecker {
+    /**
+     * delay before the first retry, every following retry waits twice as long
+     */
+    public static final long BACKOFF_MILLIS = 1000;
+
+    private static final ScheduledExecutorService EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "CreepinoUtils Update Checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param cacheFile where the last retrieved version is kept, may be null to disable the disk cache
+     * @return completes with the latest version or exceptionally once every attempt failed
+     */
+    public static CompletableFuture<String> check(VersionSettings settings, File cacheFile) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            String cached = readCache(settings, cacheFile);
+            if (cached != null) {
+                result.complete(cached);
+            } else {
+                attempt(settings, cacheFile, result, 0);
+            }
+        });
+        return result;
+    }
+
+    private static void attempt(VersionSettings settings, File cacheFile, CompletableFuture<String> result, int attempt) {
+        try {
+            String version = fetch(settings);
+            writeCache(settings, cacheFile, version);
+            result.complete(version);
+        } catch (Exception e) {
+            if (attempt + 1 >= settings.maxAttempts) {
+                result.completeExceptionally(e);
+            } else {
+                EXECUTOR.schedule(() -> attempt(settings, cacheFile, result, attempt + 1), BACKOFF_MILLIS << attempt, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public static String fetch(VersionSettings settings) throws IOException {
+        URLConnection connection = new URL(settings.versionUrl).openConnection();
+        connection.setConnectTimeout(settings.connectTimeout);
+        connection.setReadTimeout(settings.readTimeout);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            if (settings.raw) {
+                String line = in.readLine();
+                if (line == null)
+                    throw new IOException("Empty version response from " + settings.versionUrl);
+                return line.trim();
+            }
+            JsonObject object = GsonUtils.getGson().fromJson(in, JsonObject.class);
+            if (object == null || !object.has("latestVersion"))
+                throw new IOException("No latestVersion in response from " + settings.versionUrl);
+            return object.get("latestVersion").getAsString();
+        }
+    }
+
+    private static String readCache(VersionSettings settings, File cacheFile) {
+        if (cacheFile == null || settings.cacheTtl <= 0 || !cacheFile.isFile())
+            return null;
+        try (Reader reader = new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8)) {
+            JsonObject json = GsonUtils.getGson().fromJson(reader, JsonObject.class);
+            if (json == null || !json.has("url") || !json.has("version") || !json.has("checked"))
+                return null;
+            if (!settings.versionUrl.equals(json.get("url").getAsString()))
+                return null;
+            long age = System.currentTimeMillis() - json.get("checked").getAsLong();
+            return age >= 0 && age < settings.cacheTtl ? json.get("version").getAsString() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void writeCache(VersionSettings settings, File cacheFile, String version) {
+        if (cacheFile == null || settings.cacheTtl <= 0)
+            return;
+        JsonObject json = new JsonObject();
+        json.addProperty("url", settings.versionUrl);
+        json.addProperty("version", version);
+        json.addProperty("checked", System.currentTimeMillis());
+        cacheFile.getParentFile().mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(cacheFile), StandardCharsets.UTF_8)) {
+            GsonUtils.getGson().toJson(json, writer);
+        } catch (IOException ignored) {
+            // the cache is only an optimisation, the next launch just asks the host again
+        }
+    }
+}
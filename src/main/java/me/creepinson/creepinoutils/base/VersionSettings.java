@@ -1,5 +1,7 @@
 package me.creepinson.creepinoutils.base;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Creepinson http://gitlab.com/creepinson
  * Project CreepinoUtilsMod
@@ -7,6 +9,10 @@ package me.creepinson.creepinoutils.base;
 public class VersionSettings {
     public final String versionUrl;
     public final boolean raw;
+    public final int connectTimeout;
+    public final int readTimeout;
+    public final int maxAttempts;
+    public final long cacheTtl;
 
     /**
      * @param versionUrl The version url to read from.
@@ -15,7 +21,22 @@ public class VersionSettings {
      *                   with a property containing a key of "latestVersion".
      */
     public VersionSettings(String versionUrl, boolean raw) {
+        this(versionUrl, raw, 5000, 5000, 3, TimeUnit.HOURS.toMillis(6));
+    }
+
+    /**
+     * @param connectTimeout Milliseconds to wait for the version host to accept the connection.
+     * @param readTimeout    Milliseconds to wait for the version host to send data.
+     * @param maxAttempts    How many times the check is tried, waiting twice as long after every failure.
+     * @param cacheTtl       Milliseconds a retrieved version is reused from the disk cache before the host is asked again.
+     *                       Pass 0 to always ask the host.
+     */
+    public VersionSettings(String versionUrl, boolean raw, int connectTimeout, int readTimeout, int maxAttempts, long cacheTtl) {
         this.versionUrl = versionUrl;
         this.raw = raw;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxAttempts = maxAttempts;
+        this.cacheTtl = cacheTtl;
     }
 }
@@ -1,12 +1,22 @@
 package me.creepinson.creepinoutils.util.math;
 
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * A set of ints between min and max, both included, stored as a sorted list of runs.
+ * Every run is a start (included) and an end (excluded), runs never overlap or touch,
+ * so a window of a thousand ticks costs two ints just like a single tick does.
+ * Lookups are binary searches and the set operations walk both run lists once.
+ */
 public class RangedBitSet {
 
-    protected BitSet set;
+    /**
+     * start and end of every run one after the other, ascending
+     */
+    protected int[] runs;
+    protected int runCount;
     protected int min;
     protected int max;
 
@@ -15,7 +25,19 @@ public class RangedBitSet {
         this.max = max;
         if (min >= max)
             throw new IllegalArgumentException("min has to be smaller than max!");
-        this.set = new BitSet(max - min);
+        this.runs = new int[8];
+    }
+
+    /**
+     * read a set written by {@link #toArray()}
+     */
+    public RangedBitSet(int[] array) {
+        this(array[0], array[1]);
+        if (array.length % 2 != 0)
+            throw new IllegalArgumentException("Invalid RangedBitSet array of length " + array.length);
+        for (int i = 2; i < array.length; i += 2) {
+            add(array[i], array[i + 1] - 1);
+        }
     }
 
     public int getMin() {
@@ -27,23 +49,264 @@ public class RangedBitSet {
     }
 
     public void add(int value) {
-        if (value >= min && value <= max)
-            set.set(value - min, true);
+        add(value, value);
+    }
+
+    /**
+     * add every value from start to end, both included, values outside of min and max are ignored
+     */
+    public void add(int start, int end) {
+        start = Math.max(start, min);
+        end = Math.min(end, max);
+        if (start > end)
+            return;
+        long from = start, to = end + 1L;
+        // the first run ending at or after start and the first run starting after end, both merge with the new one
+        int first = firstRunEndingAtOrAfter(start);
+        int last = first;
+        while (last < runCount && runs[last * 2] <= to) {
+            from = Math.min(from, runs[last * 2]);
+            to = Math.max(to, runs[last * 2 + 1]);
+            last++;
+        }
+        replace(first, last, (int) from, (int) to);
+    }
+
+    public void remove(int value) {
+        remove(value, value);
+    }
+
+    /**
+     * remove every value from start to end, both included
+     */
+    public void remove(int start, int end) {
+        if (start > end)
+            return;
+        int first = firstRunEndingAtOrAfter(start + 1);
+        if (first == runCount || runs[first * 2] > end)
+            return;
+        int last = first;
+        while (last < runCount && runs[last * 2] <= end) {
+            last++;
+        }
+        int headStart = runs[first * 2];
+        int tailEnd = runs[(last - 1) * 2 + 1];
+        int kept = 0;
+        int[] pieces = new int[4];
+        if (headStart < start) {
+            pieces[kept++] = headStart;
+            pieces[kept++] = start;
+        }
+        if (tailEnd > end + 1) {
+            pieces[kept++] = end + 1;
+            pieces[kept++] = tailEnd;
+        }
+        splice(first, last, pieces, kept / 2);
+    }
+
+    public boolean contains(int value) {
+        int run = firstRunEndingAtOrAfter(value + 1);
+        return run < runCount && runs[run * 2] <= value;
+    }
+
+    public boolean isEmpty() {
+        return runCount == 0;
+    }
+
+    public void clear() {
+        runCount = 0;
+    }
+
+    /**
+     * @return how many values are in the set
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < runCount; i++) {
+            count += runs[i * 2 + 1] - runs[i * 2];
+        }
+        return count;
+    }
+
+    public int getRunCount() {
+        return runCount;
     }
 
+    /**
+     * add every value of the other set that lies between min and max
+     */
+    public void union(RangedBitSet other) {
+        int[] result = new int[(runCount + other.runCount) * 2];
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < runCount || j < other.runCount) {
+            int start, end;
+            if (j == other.runCount || (i < runCount && runs[i * 2] <= other.runs[j * 2])) {
+                start = runs[i * 2];
+                end = runs[i * 2 + 1];
+                i++;
+            } else {
+                start = Math.max(other.runs[j * 2], min);
+                end = Math.min(other.runs[j * 2 + 1], max + 1);
+                j++;
+                if (start >= end)
+                    continue;
+            }
+            if (count > 0 && start <= result[count * 2 - 1]) {
+                result[count * 2 - 1] = Math.max(result[count * 2 - 1], end);
+            } else {
+                result[count * 2] = start;
+                result[count * 2 + 1] = end;
+                count++;
+            }
+        }
+        set(result, count);
+    }
+
+    /**
+     * keep only the values that are in both sets
+     */
+    public void intersect(RangedBitSet other) {
+        int[] result = new int[(runCount + other.runCount) * 2];
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < runCount && j < other.runCount) {
+            int start = Math.max(runs[i * 2], other.runs[j * 2]);
+            int end = Math.min(runs[i * 2 + 1], other.runs[j * 2 + 1]);
+            if (start < end) {
+                result[count * 2] = start;
+                result[count * 2 + 1] = end;
+                count++;
+            }
+            if (runs[i * 2 + 1] < other.runs[j * 2 + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        set(result, count);
+    }
+
+    /**
+     * remove every value that is in the other set
+     */
+    public void andNot(RangedBitSet other) {
+        int[] result = new int[(runCount + other.runCount) * 2];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < runCount; i++) {
+            int start = runs[i * 2];
+            int end = runs[i * 2 + 1];
+            while (j < other.runCount && other.runs[j * 2 + 1] <= start) {
+                j++;
+            }
+            int k = j;
+            while (k < other.runCount && other.runs[k * 2] < end) {
+                if (other.runs[k * 2] > start) {
+                    result[count * 2] = start;
+                    result[count * 2 + 1] = other.runs[k * 2];
+                    count++;
+                }
+                start = Math.max(start, other.runs[k * 2 + 1]);
+                k++;
+            }
+            if (start < end) {
+                result[count * 2] = start;
+                result[count * 2 + 1] = end;
+                count++;
+            }
+        }
+        set(result, count);
+    }
+
+    public void forEachRun(IRunVisitor visitor) {
+        for (int i = 0; i < runCount; i++) {
+            visitor.visit(runs[i * 2], runs[i * 2 + 1]);
+        }
+    }
+
+    /**
+     * one range per run, max of a range is the first value after the run
+     */
+    public List<BitRange> getRuns() {
+        List<BitRange> ranges = new ArrayList<>(runCount);
+        for (int i = 0; i < runCount; i++) {
+            ranges.add(new BitRange(runs[i * 2], runs[i * 2 + 1]));
+        }
+        return ranges;
+    }
+
+    /**
+     * Treats the values as cuts and returns the pieces min to max is cut into.
+     * Every value above min starts a new piece, so this is one range per value, see {@link #getRuns()} for one per run.
+     */
     public List<BitRange> getRanges() {
         List<BitRange> ranges = new ArrayList<>();
-        int index = 0;
-        while (index < max - min) {
-            int nextIndex = set.nextSetBit(index + 1);
-            if (nextIndex == -1)
-                nextIndex = max - min;
+        int index = min;
+        for (int i = 0; i < runCount; i++) {
+            int end = Math.min(runs[i * 2 + 1], max);
+            for (int value = Math.max(runs[i * 2], index + 1); value < end; value++) {
+                ranges.add(new BitRange(index, value));
+                index = value;
+            }
+        }
+        ranges.add(new BitRange(index, max));
+        return ranges;
+    }
 
-            ranges.add(new BitRange(index + min, nextIndex + min));
+    /**
+     * min, max and then start and end of every run, for {@link net.minecraft.nbt.NBTTagCompound#setIntArray(String, int[])}
+     */
+    public int[] toArray() {
+        int[] array = new int[2 + runCount * 2];
+        array[0] = min;
+        array[1] = max;
+        System.arraycopy(runs, 0, array, 2, runCount * 2);
+        return array;
+    }
 
-            index = nextIndex;
+    private int firstRunEndingAtOrAfter(int value) {
+        int low = 0, high = runCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (runs[mid * 2 + 1] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
-        return ranges;
+        return low;
+    }
+
+    private void replace(int first, int last, int start, int end) {
+        splice(first, last, new int[]{start, end}, 1);
+    }
+
+    /**
+     * replace the runs from first to last (excluded) with the given ones
+     */
+    private void splice(int first, int last, int[] pieces, int pieceCount) {
+        int newCount = runCount - (last - first) + pieceCount;
+        if (newCount * 2 > runs.length) {
+            runs = Arrays.copyOf(runs, Math.max(newCount * 2, runs.length * 2));
+        }
+        System.arraycopy(runs, last * 2, runs, (first + pieceCount) * 2, (runCount - last) * 2);
+        System.arraycopy(pieces, 0, runs, first * 2, pieceCount * 2);
+        runCount = newCount;
+    }
+
+    private void set(int[] result, int count) {
+        runs = result.length < 8 ? Arrays.copyOf(result, 8) : result;
+        runCount = count;
+    }
+
+    public interface IRunVisitor {
+
+        /**
+         * @param start first value of the run
+         * @param end   first value after the run
+         */
+        void visit(int start, int end);
     }
 
     public static class BitRange {